@@ -0,0 +1,56 @@
+package com.mycompany.dsa;
+
+import java.util.Collection;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs ZeroAllocationBenchmark under the GC profiler and exits with status 1 if any
+ * query allocates. Usage: java -cp target/benchmarks.jar com.mycompany.dsa.AllocationCheck
+ */
+public class AllocationCheck {
+    // JMH's per-iteration bookkeeping is spread over the operations of the iteration, so slow
+    // (millisecond) queries report a few bytes per op even when the query itself allocates nothing.
+    // Any real allocation on the hot path (a boxed path, a dist array) is far above this.
+    private static final double MAX_BYTES_PER_OP = 16.0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ZeroAllocationBenchmark.class.getSimpleName())
+                .param("side", "100")
+                .param("occupancy", "0.5")
+                .param("gates", "2", "12")
+                .mode(org.openjdk.jmh.annotations.Mode.AverageTime)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        boolean failed = false;
+        for (RunResult run : results) {
+            Result<?> allocated = run.getSecondaryResults().get("gc.alloc.rate.norm");
+            String name = run.getParams().getBenchmark() + " " + run.getParams().getParam("gates") + " gates";
+            if (allocated == null) {
+                System.out.println("MISSING " + name + ": no gc.alloc.rate.norm reported");
+                failed = true;
+            } else if (allocated.getScore() > MAX_BYTES_PER_OP) {
+                System.out.printf("FAIL %s: %.2f B/op%n", name, allocated.getScore());
+                failed = true;
+            } else {
+                System.out.printf("OK   %s: %.2f B/op%n", name, allocated.getScore());
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mycompany.dsa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A window of arrivals from random gates, placed by the greedy policy (nearest free bay per
+ * vehicle, in arrival order) or by the min-cost assignment, then released again. Both return
+ * the total drive cost of the window; AssignmentComparison prints it for both policies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AssignmentBenchmark {
+    static final int WINDOWS = 64;
+
+    @Param({"100", "300"})
+    public int side;
+
+    @Param({"16", "64", "256"})
+    public int window;
+
+    @Param({"0.5"})
+    public double occupancy;
+
+    @Param({"12"})
+    public int gates;
+
+    private ParkingEngine engine;
+    private final List<List<AllocationRequest>> arrivals = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LotFixture lot = LotFixture.square(side, occupancy, gates);
+        engine = new ParkingEngine(lot.nodes, lot.edges);
+        arrivals.addAll(arrivals(lot, window, 7L));
+    }
+
+    // WINDOWS pre-drawn windows of arrivals, a quarter of them two-wheelers
+    static List<List<AllocationRequest>> arrivals(LotFixture lot, int window, long seed) {
+        Random random = new Random(seed);
+        List<List<AllocationRequest>> windows = new ArrayList<>();
+        for (int w = 0; w < WINDOWS; w++) {
+            List<AllocationRequest> requests = new ArrayList<>();
+            for (int i = 0; i < window; i++) {
+                VehicleClass vehicleClass = random.nextInt(4) == 0 ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+                requests.add(new AllocationRequest(vehicleClass, ParkingTerm.SHORT_TERM, lot.entrances[random.nextInt(lot.entrances.length)]));
+            }
+            windows.add(requests);
+        }
+        return windows;
+    }
+
+    @Benchmark
+    public long greedy() {
+        return greedy(engine, nextWindow());
+    }
+
+    @Benchmark
+    public long optimal() {
+        return optimal(engine, nextWindow());
+    }
+
+    private List<AllocationRequest> nextWindow() {
+        List<AllocationRequest> requests = arrivals.get(next);
+        next = (next + 1) % WINDOWS;
+        return requests;
+    }
+
+    static long greedy(ParkingEngine engine, List<AllocationRequest> requests) {
+        List<AllocationResult> results = new ArrayList<>(requests.size());
+        for (AllocationRequest request : requests) {
+            results.add(engine.allocate(request.vehicleClass(), request.term(), request.entrance()));
+        }
+        return driveCostAndRelease(engine, results);
+    }
+
+    static long optimal(ParkingEngine engine, List<AllocationRequest> requests) {
+        return driveCostAndRelease(engine, engine.allocateOptimal(requests));
+    }
+
+    private static long driveCostAndRelease(ParkingEngine engine, List<AllocationResult> results) {
+        long cost = 0;
+        for (AllocationResult result : results) {
+            if (result.isAllocated()) {
+                cost += engine.lotGraph().entranceCost(result.entrance(), result.spot());
+                engine.release(result.spot());
+            }
+        }
+        return cost;
+    }
+}
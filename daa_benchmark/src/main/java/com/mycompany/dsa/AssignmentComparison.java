@@ -0,0 +1,37 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+
+/**
+ * Total drive cost of the greedy policy and of the min-cost assignment on the windows of
+ * AssignmentBenchmark; run the benchmark for the time they take.
+ *
+ * Usage: java -cp target/benchmarks.jar com.mycompany.dsa.AssignmentComparison [side] [gates] [occupancy]
+ */
+public class AssignmentComparison {
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int gates = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        double occupancy = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+        int[] windows = {16, 64, 256};
+
+        System.out.printf("%nDrive cost of %d windows on a %dx%d lot, %d gates, %.0f%% occupied%n",
+                AssignmentBenchmark.WINDOWS, side, side, gates, occupancy * 100);
+        System.out.printf("%8s%14s%14s%10s%n", "window", "greedy", "optimal", "saving");
+        for (int window : windows) {
+            // One lot per policy, so both start from the same occupancy
+            LotFixture greedyLot = LotFixture.square(side, occupancy, gates);
+            LotFixture optimalLot = LotFixture.square(side, occupancy, gates);
+            ParkingEngine greedyEngine = new ParkingEngine(greedyLot.nodes, greedyLot.edges);
+            ParkingEngine optimalEngine = new ParkingEngine(optimalLot.nodes, optimalLot.edges);
+            long greedy = 0;
+            long optimal = 0;
+            for (List<AllocationRequest> requests : AssignmentBenchmark.arrivals(greedyLot, window, 7L)) {
+                greedy += AssignmentBenchmark.greedy(greedyEngine, requests);
+                optimal += AssignmentBenchmark.optimal(optimalEngine, requests);
+            }
+            System.out.printf("%8d%14d%14d%9.2f%%%n", window, greedy, optimal, 100.0 * (greedy - optimal) / greedy);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bellman-Ford on lots where a share of the row edges also has a one-way discount arc of
+ * weight -1, eastwards. Every lot edge weighs 1, so a cycle gains at most as much as it pays
+ * going back west and the lot has no negative cycle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BellmanFordBenchmark {
+    @Param({"10", "100", "1000"})
+    public int side;
+
+    @Param({"0.0", "0.5", "0.9"})
+    public double occupancy;
+
+    @Param({"2", "12"})
+    public int gates;
+
+    @Param({"0.0", "0.1"})
+    public double discountShare;
+
+    private LotFixture lot;
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lot = LotFixture.square(side, occupancy, gates);
+        graph = lot.buildGraph();
+        Random random = new Random(7L);
+        for (int id = 0; id < lot.rows * lot.cols; id++) {
+            if (id % lot.cols < lot.cols - 1 && random.nextDouble() < discountShare) {
+                graph.addArc(id, id + 1, -1);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Integer> bellmanFord(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.bellmanFordShortestPath(lot.sources[q], lot.targets[q]);
+    }
+}
@@ -0,0 +1,116 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stress test for ParkingEngine.concurrent(): gates on many threads allocate and release as
+ * fast as they can while an independent owner table checks that no bay is ever held twice.
+ * Every fourth release is also handed to a duplicate thread that releases the same allocation,
+ * racing the gate; exactly one of the two must free the bay.
+ *
+ * Usage: java -cp target/benchmarks.jar com.mycompany.dsa.ConcurrentClaimStress [threads] [seconds] [side] [stripesPerZone]
+ * Exits with status 1 on any double allocation, failed release or duplicate release that freed a
+ * bay twice or not at all.
+ */
+public class ConcurrentClaimStress {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int side = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int stripesPerZone = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        LotFixture lot = LotFixture.square(side, 0.0, 12);
+        ParkingEngine engine = ParkingEngine.concurrent(lot.nodes, lot.edges, stripesPerZone);
+        AtomicIntegerArray owner = new AtomicIntegerArray(lot.nodes.size()); // 0 = free, else thread + 1
+
+        // Every thread keeps up to `held` bays, so the lot runs at about 80% occupancy and gates collide
+        int held = Math.max(1, side * side * 8 / 10 / threads);
+        LongAdder claims = new LongAdder();
+        LongAdder violations = new LongAdder();
+        LongAdder failedReleases = new LongAdder();
+        LongAdder duplicated = new LongAdder();
+        LongAdder duplicateWins = new LongAdder(); // Releases of duplicated allocations that freed the bay
+        ConcurrentLinkedQueue<long[]> duplicates = new ConcurrentLinkedQueue<>(); // {bay, allocation}
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        int duplicateThreads = Math.max(1, threads / 4);
+        CountDownLatch duplicatesDone = new CountDownLatch(duplicateThreads);
+        for (int t = 0; t < duplicateThreads; t++) {
+            Thread duplicate = new Thread(() -> {
+                while (done.getCount() > 0 || !duplicates.isEmpty()) {
+                    long[] release = duplicates.poll();
+                    if (release == null) {
+                        Thread.onSpinWait();
+                    } else if (engine.release((int) release[0], release[1]).isReleased()) {
+                        duplicateWins.increment();
+                    }
+                }
+                duplicatesDone.countDown();
+            }, "duplicate-" + t);
+            duplicate.start();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            int id = t + 1;
+            Thread gate = new Thread(() -> {
+                int[] ring = new int[held];
+                long[] allocation = new long[held];
+                int head = 0;
+                int size = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long local = 0;
+                while ((local & 1023) != 0 || System.nanoTime() < deadline) {
+                    if (size == held) {
+                        int spot = ring[head];
+                        long number = allocation[head];
+                        head = (head + 1) % held;
+                        size--;
+                        owner.set(spot, 0);
+                        if ((local & 3) == 0) {
+                            duplicated.increment();
+                            duplicates.add(new long[]{spot, number});
+                            if (engine.release(spot, number).isReleased()) {
+                                duplicateWins.increment();
+                            }
+                        } else if (!engine.release(spot).isReleased()) {
+                            failedReleases.increment();
+                        }
+                    }
+                    VehicleClass vehicleClass = random.nextBoolean() ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+                    ParkingTerm term = random.nextBoolean() ? ParkingTerm.LONG_TERM : ParkingTerm.SHORT_TERM;
+                    int entrance = lot.entrances[random.nextInt(lot.entrances.length)];
+                    AllocationResult result = engine.allocate(vehicleClass, term, entrance);
+                    local++;
+                    if (result.isAllocated()) {
+                        if (!owner.compareAndSet(result.spot(), 0, id)) {
+                            violations.increment();
+                        }
+                        ring[(head + size) % held] = result.spot();
+                        allocation[(head + size) % held] = engine.allocationOf(result.spot());
+                        size++;
+                    }
+                }
+                claims.add(local);
+                done.countDown();
+            }, "gate-" + id);
+            gate.start();
+        }
+        done.await();
+        duplicatesDone.await();
+
+        System.out.printf("%d threads, %dx%d lot, %d stripe(s) per zone, %d s: %,d allocate calls (%,.0f per second)%n",
+                threads, side, side, stripesPerZone, seconds, claims.sum(), claims.sum() / (double) seconds);
+        long duplicateErrors = Math.abs(duplicateWins.sum() - duplicated.sum());
+        System.out.printf("double allocations: %d, failed releases: %d, duplicate releases: %,d (%d freed twice or never)%n",
+                violations.sum(), failedReleases.sum(), duplicated.sum(), duplicateErrors);
+        if (violations.sum() != 0 || failedReleases.sum() != 0 || duplicateErrors != 0) {
+            System.exit(1);
+        }
+    }
+}
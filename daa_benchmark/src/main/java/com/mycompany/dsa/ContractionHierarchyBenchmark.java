@@ -0,0 +1,99 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contraction-hierarchy queries against the other searches on the same queries, and the cost
+ * of building the hierarchy. Preprocessing limits the lot sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ContractionHierarchyBenchmark {
+    @Param({"10", "100", "300"})
+    public int side;
+
+    @Param({"0.0", "0.9"})
+    public double occupancy;
+
+    @Param({"2"})
+    public int gates;
+
+    private LotFixture lot;
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lot = LotFixture.square(side, occupancy, gates);
+        graph = lot.buildGraph();
+        graph.buildHierarchy();
+    }
+
+    @Benchmark
+    public List<Integer> contractionHierarchy(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.hierarchySearch(lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> dijkstra(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.dijkstraShortestPath(lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> bellmanFord(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.bellmanFordShortestPath(lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> contentBased(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.contentBasedSearch(lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> jumpPoint(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.jumpPointSearch(lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> combined(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.combinedSearch(lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> bidirectional(QueryCursor cursor) {
+        int q = cursor.next();
+        return graph.bidirectionalSearch(lot.sources[q], lot.targets[q]);
+    }
+
+    // Full preprocessing of the lot, as a background rebuild after a closure pays it
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ContractionHierarchy build() {
+        return ContractionHierarchy.build(graph.csr());
+    }
+}
@@ -0,0 +1,20 @@
+package com.mycompany.dsa;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Single-threaded engine over its own copy of the LotState lot, which it mutates.
+ */
+@State(Scope.Benchmark)
+public class EngineState {
+    ParkingEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp(LotState state) {
+        LotFixture lot = LotFixture.square(state.side, state.occupancy, state.gates);
+        engine = new ParkingEngine(lot.nodes, lot.edges);
+    }
+}
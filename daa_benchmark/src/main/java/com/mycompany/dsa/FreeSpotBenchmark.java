@@ -0,0 +1,69 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gate decision: nearest free bay of a vehicle class to an entrance, by drive cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Djava.awt.headless=true"})
+public class FreeSpotBenchmark {
+    private FreeSpotIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp(LotState state) {
+        index = new FreeSpotIndex(state.graph);
+    }
+
+    @Benchmark
+    public int nearestFree(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return index.nearest(state.lot.sources[q], (q & 1) == 1, (q & 2) == 2);
+    }
+
+    // Allocate the nearest bay and free it again, keeping the index in its initial state
+    @Benchmark
+    public int allocateAndRelease(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        int bay = index.nearest(state.lot.sources[q], (q & 1) == 1, (q & 2) == 2);
+        if (bay != -1) {
+            index.remove(bay);
+            index.add(bay);
+        }
+        return bay;
+    }
+
+    // Full gate decision: nearest bay plus its route from the stored tree
+    @Benchmark
+    public int nearestWithPath(LotState state, QueryCursor cursor, PathBuffer buffer) {
+        int q = cursor.next();
+        int bay = index.nearest(state.lot.sources[q], (q & 1) == 1, (q & 2) == 2);
+        return bay == -1 ? 0 : index.path(state.lot.sources[q], bay, buffer.path);
+    }
+
+    // The original per-car linear scan over the vehicle class
+    @Benchmark
+    public int linearScan(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        int half = (state.lot.rows / 2) * state.lot.cols;
+        boolean isTwoWheeler = (q & 1) == 1;
+        int start = isTwoWheeler ? half : 0;
+        int end = isTwoWheeler ? state.lot.rows * state.lot.cols - 1 : half - 1;
+        return VehicleSelection.allocateNearestNode(state.lot.nodes, start, end, state.lot.sources[q]);
+    }
+}
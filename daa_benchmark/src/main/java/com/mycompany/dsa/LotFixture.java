@@ -0,0 +1,53 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated parking lot used by the benchmarks.
+ *
+ * A LotLayout (the layout of DSA.main at any size) with a random share of the bays occupied
+ * and pre-drawn queries.
+ */
+final class LotFixture {
+    static final int QUERY_COUNT = 1024;
+
+    final LotLayout layout;
+    final int rows;
+    final int cols;
+    final List<Node> nodes;
+    final List<Edge> edges;
+    final int[] entrances;
+    final int[] exits;
+
+    // Pre-drawn query pairs so that the benchmark loop does not touch Random
+    final int[] sources = new int[QUERY_COUNT];
+    final int[] targets = new int[QUERY_COUNT];
+
+    LotFixture(int rows, int cols, double occupancy, int entranceCount, int exitCount, long seed) {
+        this.layout = new LotLayout(rows, cols, entranceCount, exitCount);
+        this.rows = rows;
+        this.cols = cols;
+        this.nodes = layout.nodes;
+        this.edges = layout.edges;
+        this.entrances = layout.entrances;
+        this.exits = layout.exits;
+        Random random = new Random(seed);
+
+        for (int id = 0; id < layout.bayCount(); id++) {
+            nodes.get(id).setAllocated(random.nextDouble() < occupancy);
+        }
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            sources[q] = entrances[random.nextInt(entranceCount)];
+            targets[q] = random.nextInt(rows * cols);
+        }
+    }
+
+    static LotFixture square(int side, double occupancy, int gates) {
+        return new LotFixture(side, side, occupancy, gates, gates, 42L);
+    }
+
+    Graph buildGraph() {
+        return layout.buildGraph();
+    }
+}
@@ -0,0 +1,32 @@
+package com.mycompany.dsa;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared lot for the search benchmarks, parameterised by size, occupancy and gate count.
+ */
+@State(Scope.Benchmark)
+public class LotState {
+    @Param({"10", "100", "1000"})
+    public int side;
+
+    @Param({"0.0", "0.5", "0.9"})
+    public double occupancy;
+
+    // Number of entrances and, separately, of exits
+    @Param({"2", "12"})
+    public int gates;
+
+    LotFixture lot;
+    Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lot = LotFixture.square(side, occupancy, gates);
+        graph = lot.buildGraph();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.dsa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One vehicle through the headless engine: allocate at a gate, then release the bay.
+ *
+ * The burst benchmarks park BURST vehicles at one entrance, one call each or as one batch, and
+ * report the time per vehicle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParkingEngineBenchmark {
+    private static final int BURST = 32;
+
+    private ParkingEngine engine;
+    private final List<AllocationRequest> burst = new ArrayList<>();
+    private final int[] spots = new int[BURST];
+
+    @Setup(Level.Trial)
+    public void setUp(LotState state) {
+        // A fresh lot: the engine mutates the nodes, which LotState shares with other benchmarks
+        LotFixture lot = LotFixture.square(state.side, state.occupancy, state.gates);
+        engine = new ParkingEngine(lot.nodes, lot.edges);
+        for (int i = 0; i < BURST; i++) {
+            VehicleClass vehicleClass = i % 4 == 3 ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+            burst.add(new AllocationRequest(vehicleClass, ParkingTerm.SHORT_TERM, lot.entrances[0]));
+        }
+    }
+
+    @Benchmark
+    public ReleaseResult allocateAndRelease(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        VehicleClass vehicleClass = (q & 1) == 1 ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+        AllocationResult result = engine.allocate(vehicleClass, ParkingTerm.SHORT_TERM, state.lot.sources[q]);
+        return result.isAllocated() ? engine.release(result.spot()) : null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int burstOneByOne() {
+        for (int i = 0; i < BURST; i++) {
+            AllocationRequest request = burst.get(i);
+            spots[i] = engine.allocate(request.vehicleClass(), request.term(), request.entrance()).spot();
+        }
+        return releaseBurst();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int burstAsBatch() {
+        List<AllocationResult> results = engine.allocate(burst);
+        for (int i = 0; i < BURST; i++) {
+            spots[i] = results.get(i).spot();
+        }
+        return releaseBurst();
+    }
+
+    private int releaseBurst() {
+        int released = 0;
+        for (int spot : spots) {
+            if (spot != -1) {
+                engine.release(spot);
+                released++;
+            }
+        }
+        return released;
+    }
+}
@@ -0,0 +1,19 @@
+package com.mycompany.dsa;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread output buffers for the allocation-free Graph overloads.
+ */
+@State(Scope.Thread)
+public class PathBuffer {
+    int[] path;
+    final int[] exit = new int[2];
+
+    @Setup
+    public void setUp(LotState state) {
+        path = new int[state.graph.size()];
+    }
+}
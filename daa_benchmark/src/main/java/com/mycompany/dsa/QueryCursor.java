@@ -0,0 +1,16 @@
+package com.mycompany.dsa;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in the pre-drawn query list of a LotFixture.
+ */
+@State(Scope.Thread)
+public class QueryCursor {
+    private int index;
+
+    int next() {
+        return index++ & (LotFixture.QUERY_COUNT - 1);
+    }
+}
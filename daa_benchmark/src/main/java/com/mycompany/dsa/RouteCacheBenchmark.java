@@ -0,0 +1,127 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The pre-drawn entrance-to-bay queries of a LotFixture, repeated, searched directly and through
+ * Graph.cachedPath, whose cache holds all 1024 of them.
+ *
+ * The underTraffic variants allocate and release a bay before
+ * every TRAFFIC_EVERY-th query, so cached CBS routes are checked against the congestion stamps of
+ * their edges, and the routes through the aisles that vehicle drove are searched again. Hit
+ * rates are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RouteCacheBenchmark {
+    static final int TRAFFIC_EVERY = 16;
+
+    @Param({"30", "100"})
+    public int side;
+
+    @Param({"0.5"})
+    public double occupancy;
+
+    @Param({"12"})
+    public int gates;
+
+    private LotFixture lot;
+    private ParkingEngine engine;
+    private Graph graph;
+    private int[] path;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lot = LotFixture.square(side, occupancy, gates);
+        engine = new ParkingEngine(lot.nodes, lot.edges);
+        graph = engine.lotGraph().graph();
+        path = new int[graph.size()];
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        RouteCache cache = graph.routeCache();
+        long total = cache.hits() + cache.misses();
+        if (total == 0) {
+            return;
+        }
+        System.out.printf("%nroute cache: %d hits, %d misses (%.1f%% hits)%n",
+                cache.hits(), cache.misses(), 100.0 * cache.hits() / total);
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (LotFixture.QUERY_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public int[] dijkstra() {
+        int q = nextQuery();
+        graph.dijkstraShortestPath(lot.sources[q], lot.targets[q], path);
+        return path;
+    }
+
+    @Benchmark
+    public int[] cachedDijkstra() {
+        int q = nextQuery();
+        return graph.cachedPath(SearchAlgorithm.DIJKSTRA, lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public int[] contentBased() {
+        int q = nextQuery();
+        graph.contentBasedSearch(lot.sources[q], lot.targets[q], path);
+        return path;
+    }
+
+    @Benchmark
+    public int[] cachedContentBased() {
+        int q = nextQuery();
+        return graph.cachedPath(SearchAlgorithm.CONTENT_BASED, lot.sources[q], lot.targets[q]);
+    }
+
+    @Benchmark
+    public int[] contentBasedUnderTraffic() {
+        int q = nextQuery();
+        traffic(q);
+        graph.contentBasedSearch(lot.sources[q], lot.targets[q], path);
+        return path;
+    }
+
+    @Benchmark
+    public int[] cachedContentBasedUnderTraffic() {
+        int q = nextQuery();
+        traffic(q);
+        return graph.cachedPath(SearchAlgorithm.CONTENT_BASED, lot.sources[q], lot.targets[q]);
+    }
+
+    // Every TRAFFIC_EVERY-th query a vehicle parks and leaves again, from the gate of another query
+    private void traffic(int q) {
+        if (q % TRAFFIC_EVERY != 0) {
+            return;
+        }
+        int gate = lot.sources[(q * 7 + 3) & (LotFixture.QUERY_COUNT - 1)];
+        AllocationResult result = engine.allocate(VehicleClass.FOUR_WHEELER, ParkingTerm.SHORT_TERM, gate);
+        if (result.isAllocated()) {
+            engine.release(result.spot());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Entrance-to-bay and bay-to-exit queries for the Graph search methods.
+ *
+ * BellmanFordBenchmark adds negative-weight lots for Bellman-Ford.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SearchBenchmark {
+
+    @Benchmark
+    public List<Integer> dijkstra(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return state.graph.dijkstraShortestPath(state.lot.sources[q], state.lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> bellmanFord(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return state.graph.bellmanFordShortestPath(state.lot.sources[q], state.lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> contentBased(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return state.graph.contentBasedSearch(state.lot.sources[q], state.lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> jumpPoint(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return state.graph.jumpPointSearch(state.lot.sources[q], state.lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> combined(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return state.graph.combinedSearch(state.lot.sources[q], state.lot.targets[q]);
+    }
+
+    @Benchmark
+    public List<Integer> bidirectional(LotState state, QueryCursor cursor) {
+        int q = cursor.next();
+        return state.graph.bidirectionalSearch(state.lot.sources[q], state.lot.targets[q]);
+    }
+
+    @Benchmark
+    public int[] closestExit(LotState state, QueryCursor cursor) {
+        return state.graph.findClosestExit(state.lot.targets[cursor.next()], state.lot.exits);
+    }
+
+    @Benchmark
+    public int[] closestExitSearch(LotState state, QueryCursor cursor, PathBuffer buffer) {
+        state.graph.nearestTarget(state.lot.targets[cursor.next()], state.lot.exits, buffer.exit);
+        return buffer.exit;
+    }
+
+    // Allocate and release one bay, repairing the exit distance field after each change
+    @Benchmark
+    public int exitFieldRepair(LotState state, QueryCursor cursor) {
+        Node bay = state.lot.nodes.get(state.lot.targets[cursor.next()]);
+        state.graph.exitField();
+        bay.setAllocated(!bay.isAllocated());
+        state.graph.nodeWeightChanged(bay.id());
+        bay.setAllocated(!bay.isAllocated());
+        state.graph.nodeWeightChanged(bay.id());
+        return state.graph.exitField().distance(bay.id());
+    }
+
+    @Benchmark
+    public int[] allExitDistances(LotState state, QueryCursor cursor) {
+        return state.graph.distancesTo(state.lot.targets[cursor.next()], state.lot.exits);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mycompany.dsa;
+
+import java.util.Collection;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Scaling curve of StripeScalingBenchmark: throughput and speedup over one thread for every
+ * thread count, with one stripe per zone and with many.
+ *
+ * Usage: java -cp target/benchmarks.jar com.mycompany.dsa.StripeScaling [side] [threads...]
+ * Speedup is only meaningful up to the number of cores of the machine.
+ */
+public class StripeScaling {
+
+    public static void main(String[] args) throws RunnerException {
+        String side = args.length > 0 ? args[0] : "1000";
+        int[] threads = {1, 2, 4, 8, 16, 32};
+        if (args.length > 1) {
+            threads = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                threads[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        String[] stripes = {"1", "16"};
+
+        double[][] score = new double[stripes.length][threads.length];
+        for (int s = 0; s < stripes.length; s++) {
+            for (int t = 0; t < threads.length; t++) {
+                Collection<RunResult> results = new Runner(new OptionsBuilder()
+                        .include(StripeScalingBenchmark.class.getSimpleName())
+                        .param("side", side)
+                        .param("stripesPerZone", stripes[s])
+                        .threads(threads[t])
+                        .build()).run();
+                score[s][t] = results.iterator().next().getPrimaryResult().getScore();
+            }
+        }
+
+        System.out.printf("%nclaim + release on a %sx%s lot, %d cores (ops/us, speedup over 1 thread)%n",
+                side, side, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s", "threads");
+        for (String s : stripes) {
+            System.out.printf("%24s", s + " stripe(s)/zone");
+        }
+        System.out.println();
+        for (int t = 0; t < threads.length; t++) {
+            System.out.printf("%8d", threads[t]);
+            for (int s = 0; s < stripes.length; s++) {
+                System.out.printf("%16.2f %6.2fx", score[s][t], score[s][t] / score[s][0]);
+            }
+            System.out.println();
+        }
+    }
+}
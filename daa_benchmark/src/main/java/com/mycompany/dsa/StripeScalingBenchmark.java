@@ -0,0 +1,63 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Claim and release on the striped lot state from many gate threads at once.
+ *
+ * Run it with JMH's -t for one thread count, or through StripeScaling for a whole curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StripeScalingBenchmark {
+    @Param({"100", "1000"})
+    public int side;
+
+    @Param({"1", "16"})
+    public int stripesPerZone;
+
+    LotFixture lot;
+    StripedLotState state;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lot = LotFixture.square(side, 0.5, 12);
+        state = new StripedLotState(lot.buildGraph(), stripesPerZone);
+    }
+
+    @State(Scope.Thread)
+    public static class Gate {
+        int home;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            home = (int) Thread.currentThread().threadId();
+        }
+    }
+
+    @Benchmark
+    public int claimAndRelease(QueryCursor cursor, Gate gate) {
+        int q = cursor.next();
+        int bay = state.claim(lot.sources[q], (q & 1) == 1, (q & 2) == 2, gate.home);
+        if (bay != -1) {
+            state.release(bay);
+        }
+        return bay;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bay deadlines on the timing wheel with every bay of a large lot occupied.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TimingWheelBenchmark {
+    @Param({"10000", "1000000"})
+    public int bays;
+
+    private TimingWheel wheel;
+    private int[] expired;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        wheel = new TimingWheel(bays, 0);
+        expired = new int[bays];
+        for (int bay = 0; bay < bays; bay++) {
+            wheel.schedule(bay, 1 + (bay * 7919L) % 200_000); // Spread over about 5.5 hours of 100 ms ticks
+        }
+    }
+
+    // Re-arm one bay, as an allocation does after a release
+    @Benchmark
+    public int rescheduleAndCancel() {
+        int bay = next++ % bays;
+        wheel.schedule(bay, wheel.now() + 100 + (bay & 4095));
+        wheel.cancel(bay);
+        wheel.schedule(bay, wheel.now() + 100 + (bay & 4095));
+        return bay;
+    }
+
+    // One 100 ms tick, with the expired bays scheduled again
+    @Benchmark
+    public int tick() {
+        int n = wheel.advanceTo(wheel.now() + 1, expired);
+        for (int i = 0; i < n; i++) {
+            wheel.schedule(expired[i], wheel.now() + 200_000);
+        }
+        return n;
+    }
+}
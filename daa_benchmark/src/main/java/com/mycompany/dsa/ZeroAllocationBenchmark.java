@@ -0,0 +1,56 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady-state queries through the buffer-writing Graph overloads, and a vehicle through the
+ * buffer-writing ParkingEngine allocate and release.
+ *
+ * gc.alloc.rate.norm must stay at zero; AllocationCheck runs this class and enforces that.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ZeroAllocationBenchmark {
+
+    @Benchmark
+    public int dijkstra(LotState state, QueryCursor cursor, PathBuffer buffer) {
+        int q = cursor.next();
+        return state.graph.dijkstraShortestPath(state.lot.sources[q], state.lot.targets[q], buffer.path);
+    }
+
+    @Benchmark
+    public int contentBased(LotState state, QueryCursor cursor, PathBuffer buffer) {
+        int q = cursor.next();
+        return state.graph.contentBasedSearch(state.lot.sources[q], state.lot.targets[q], buffer.path);
+    }
+
+    @Benchmark
+    public int combined(LotState state, QueryCursor cursor, PathBuffer buffer) {
+        int q = cursor.next();
+        return state.graph.combinedSearch(state.lot.sources[q], state.lot.targets[q], buffer.path);
+    }
+
+    @Benchmark
+    public int closestExit(LotState state, QueryCursor cursor, PathBuffer buffer) {
+        state.graph.findClosestExit(state.lot.targets[cursor.next()], state.lot.exits, buffer.exit);
+        return buffer.exit[0];
+    }
+
+    @Benchmark
+    public int allocateAndRelease(EngineState engine, LotState state, QueryCursor cursor, PathBuffer buffer) {
+        int q = cursor.next();
+        VehicleClass vehicleClass = (q & 1) == 1 ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+        int length = engine.engine.allocate(vehicleClass, ParkingTerm.SHORT_TERM, state.lot.sources[q], buffer.path);
+        return length == 0 ? -1 : engine.engine.release(buffer.path[length - 1], buffer.exit);
+    }
+}
@@ -1,16 +1,14 @@
 package com.mycompany.dsa;
 
 import java.awt.*;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import javax.swing.*;
 
 public class AllocationDisplay extends JFrame {
 
-    private final Map<Integer, Timer> timers = new HashMap<>();
-    private final Map<Integer, Timer> overstayTimers = new HashMap<>();
-    private int timeLimit;
+    private static final int EXPIRY_POLL_MILLIS = 250;
+
+    private final Timer expiryTimer;
     private JButton submitButton, exitButton;
     private ButtonGroup buttonGroup;
     private JRadioButton stayButton;
@@ -19,13 +17,15 @@ public class AllocationDisplay extends JFrame {
     private Color allocatedColor;
     private boolean isLongTermParking;
     private int allocatedNode;
+    private ParkingEngine engine;
     private List<Node> nodes;
     private List<Edge> edges;
     private static AllocationDisplay instance = null;
 
-    private AllocationDisplay(List<Node> nodes, List<Edge> edges, List<Integer> shortestPath, int allocatedNode, Color allocatedColor, boolean isLongTermParking) {
-        this.nodes = nodes;
-        this.edges = edges;
+    private AllocationDisplay(ParkingEngine engine, List<Integer> shortestPath, int allocatedNode, Color allocatedColor, boolean isLongTermParking) {
+        this.engine = engine;
+        this.nodes = engine.lotGraph().nodes();
+        this.edges = engine.lotGraph().edges();
         this.allocatedColor = allocatedColor;
         this.isLongTermParking = isLongTermParking;
         this.allocatedNode = allocatedNode;
@@ -51,54 +51,38 @@ public class AllocationDisplay extends JFrame {
         add(allocationPanel, BorderLayout.CENTER);
 
         createExitButton();
-        updateTimeLimit();
-        createTimer(allocatedNode);
+
+        // One timer for all bays: the engine's timing wheel reports the ones whose time is up
+        expiryTimer = new Timer(EXPIRY_POLL_MILLIS, e -> this.engine.advanceTime(this::showTimesUp));
+        expiryTimer.start();
     }
 
-    public static AllocationDisplay getInstance(List<Node> nodes, List<Edge> edges, List<Integer> shortestPath, int allocatedNode, Color allocatedColor, boolean isLongTermParking) {
+    static AllocationDisplay getInstance(ParkingEngine engine, List<Integer> shortestPath, int allocatedNode, Color allocatedColor, boolean isLongTermParking) {
         if (instance == null) {
-            instance = new AllocationDisplay(nodes, edges, shortestPath, allocatedNode, allocatedColor, isLongTermParking);
+            instance = new AllocationDisplay(engine, shortestPath, allocatedNode, allocatedColor, isLongTermParking);
         } else {
-            instance.updateParameters(nodes, edges, shortestPath, allocatedNode, allocatedColor, isLongTermParking);
+            instance.updateParameters(engine, shortestPath, allocatedNode, allocatedColor, isLongTermParking);
         }
         return instance;
     }
 
-    private void updateParameters(List<Node> nodes, List<Edge> edges, List<Integer> shortestPath, int allocatedNode, Color allocatedColor, boolean isLongTermParking) {
-        this.nodes = nodes;
-        this.edges = edges;
+    private void updateParameters(ParkingEngine engine, List<Integer> shortestPath, int allocatedNode, Color allocatedColor, boolean isLongTermParking) {
+        this.engine = engine;
+        this.nodes = engine.lotGraph().nodes();
+        this.edges = engine.lotGraph().edges();
         this.allocatedColor = allocatedColor;
         this.isLongTermParking = isLongTermParking;
         this.allocatedNode = allocatedNode;
 
         allocationPanel.updateAllocation(nodes, edges, shortestPath, allocatedNode, allocatedColor);
-
-        updateTimeLimit();
-        createTimer(allocatedNode);
-    }
-
-    private void updateTimeLimit() {
-        timeLimit = isLongTermParking ? 20 : 10;
     }
 
-    private void createTimer(int allocatedNode) {
-        if (timers.containsKey(allocatedNode)) {
-            timers.get(allocatedNode).stop();
+    // Dialogs are modal, so each one gets its own event instead of blocking the batch
+    private void showTimesUp(int[] spots, int count) {
+        for (int i = 0; i < count; i++) {
+            int spot = spots[i];
+            SwingUtilities.invokeLater(() -> showTimesUpDialog(spot));
         }
-
-        Timer timer = new Timer(1000, e -> {
-            timeLimit--;
-            if (timeLimit == 0) {
-                Timer currentTimer = timers.get(allocatedNode);
-                if (currentTimer != null) {
-                    currentTimer.stop();
-                    showTimesUpDialog(allocatedNode);
-                }
-            }
-        });
-
-        timers.put(allocatedNode, timer);
-        timer.start();
     }
 
     private void createExitButton() {
@@ -132,50 +116,29 @@ public class AllocationDisplay extends JFrame {
     }
 
     private void deallocateParkingSpace(int deallocatedNode) {
-        Node node = nodes.get(deallocatedNode);
-
-        if (overstayTimers.containsKey(deallocatedNode)) {
-            overstayTimers.get(deallocatedNode).stop();
-            overstayTimers.remove(deallocatedNode);
+        ReleaseResult result = engine.release(deallocatedNode);
+        if (result.status() == ReleaseResult.Status.INVALID_SPOT) {
+            JOptionPane.showMessageDialog(this, "There is no parking spot " + deallocatedNode + ".");
+            return;
         }
-
-        if (timers.containsKey(deallocatedNode)) {
-            timers.get(deallocatedNode).stop();
-            timers.remove(deallocatedNode);
-        }
-
-        // Find the closest exit
-        Graph graph = new Graph(nodes.size(), nodes);
-        for (Edge edge : edges) {
-            graph.addEdge(edge.u, edge.v, edge.weight);
+        if (result.status() == ReleaseResult.Status.NOT_ALLOCATED) {
+            JOptionPane.showMessageDialog(this, "Parking spot " + deallocatedNode + " is not allocated.");
+            return;
         }
 
-        int[] exits = {102, 103}; // Example exit IDs
-        int closestExit = -1;
-        int minDistance = Integer.MAX_VALUE;
-
-        for (int exit : exits) {
-            List<Integer> path = graph.dijkstraShortestPath(deallocatedNode, exit);
-            if (!path.isEmpty() && path.size() < minDistance) {
-                minDistance = path.size();
-                closestExit = exit;
-            }
-        }
-
-        String exitMessage = closestExit != -1
-                ? "Closest exit is " + closestExit + " with distance " + minDistance + "."
+        String exitMessage = result.closestExit() != -1
+                ? "Closest exit is " + result.closestExit() + " with distance " + result.exitDistance() + "."
                 : "No exit found.";
 
         JOptionPane.showMessageDialog(
                 this,
                 "Parking spot " + deallocatedNode + " deallocated successfully.\n" +
-                        "Overstayed time: " + (node.overstayedTime > 0 ? node.overstayedTime + " seconds." : "None.") + "\n" +
+                        "Overstayed time: " + (result.overstayedSeconds() > 0 ? result.overstayedSeconds() + " seconds." : "None.") + "\n" +
                         exitMessage,
                 "Deallocation Successful",
                 JOptionPane.INFORMATION_MESSAGE
         );
 
-        node.reset(); // Reset node properties
         SwingUtilities.invokeLater(() -> allocationPanel.repaint());
     }
 
@@ -209,19 +172,12 @@ public class AllocationDisplay extends JFrame {
     }
 
     private void handleStay(int allocatedNode) {
-        Node node = nodes.get(allocatedNode);
-        node.isStay = true;
-        node.isAllocated = true;
-        node.color = Color.YELLOW;
-
-        if (overstayTimers.containsKey(allocatedNode)) {
-            overstayTimers.get(allocatedNode).stop();
+        SpotStatus status = engine.extend(allocatedNode); // Marks the bay as stay, which the panel draws in yellow
+        if (!status.isAllocated()) {
+            JOptionPane.showMessageDialog(this, "Parking spot " + allocatedNode + " is not allocated.");
+            return;
         }
 
-        Timer overstayTimer = new Timer(1000, evt -> node.overstayedTime++);
-        overstayTimers.put(allocatedNode, overstayTimer);
-        overstayTimer.start();
-
         SwingUtilities.invokeLater(() -> allocationPanel.repaint());
     }
 
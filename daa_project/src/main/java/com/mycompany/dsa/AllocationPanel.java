@@ -46,58 +46,45 @@ public class AllocationPanel extends JPanel {
                 g2d.setColor(Color.BLACK); // Default edge color
             }
             g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(nodes.get(edge.u).x, nodes.get(edge.u).y, nodes.get(edge.v).x, nodes.get(edge.v).y);
+            g2d.drawLine(nodes.get(edge.u).x(), nodes.get(edge.u).y(), nodes.get(edge.v).x(), nodes.get(edge.v).y());
         }
 
         // Draw nodes
         for (Node node : nodes) {
-            int size = (node.id >= 50 && node.id <= 99) ? 35 : 50; // Two-wheeler spots are smaller than four-wheeler spots
-            Color color = Color.LIGHT_GRAY; // Default color for parking spots
-
-            // Set colors and sizes for specific node types
-            if (node.id == 100 || node.id == 101) { // Entrances
-                size = 40;
-                color = Color.BLUE;
-            } else if (node.id == 102 || node.id == 103) { // Exits
+            int size = (node.id() >= 50 && node.id() <= 99) ? 35 : 50; // Two-wheeler spots are smaller than four-wheeler spots
+            // Set sizes for specific node types
+            if (node.id() >= 100 && node.id() <= 103) { // Entrances and exits
                 size = 40;
-                color = Color.RED;
             }
 
-            // Determine color based on allocation state and type
-            if (node.isStay) {
-                color = Color.YELLOW; // Stay state
-            } else if (node.isLeave) {
-                color = Color.GRAY; // Leave state
-            } else if (node.isLongTerm) {
-                color = Color.PINK; // Long-term parking
-            } else if (node.isAllocated && node.id == allocatedNode) {
-                color = allocatedColor; // Highlight the specifically allocated node
-            } else if (node.isAllocated) {
-                color = Color.GREEN; // Allocated short-term spots
+            // Colour of the node's state, with the spot just allocated highlighted
+            Color color = node.color();
+            if (node.isAllocated() && node.id() == allocatedNode && color == Color.GREEN) {
+                color = allocatedColor;
             }
 
             // Draw the parking spot
             g2d.setColor(color);
-            g2d.fillRect(node.x - size / 2, node.y - size / 2, size, size);
+            g2d.fillRect(node.x() - size / 2, node.y() - size / 2, size, size);
 
             // Add borders for nodes
             g2d.setStroke(new BasicStroke(2));
             g2d.setColor(Color.BLACK);
-            g2d.drawRect(node.x - size / 2, node.y - size / 2, size, size);
+            g2d.drawRect(node.x() - size / 2, node.y() - size / 2, size, size);
 
             // Add labels for nodes
             g2d.setColor(Color.BLACK);
-            g2d.drawString(Integer.toString(node.id), node.x - 10, node.y + 5);
+            g2d.drawString(Integer.toString(node.id()), node.x() - 10, node.y() + 5);
 
             // Add labels for entrances and exits
-            if (node.id == 100) {
-                g2d.drawString("Entry 1", node.x - 35, node.y + size / 2 + 10);
-            } else if (node.id == 101) {
-                g2d.drawString("Entry 2", node.x + size / 2 - 10, node.y + size / 2 + 10);
-            } else if (node.id == 102) {
-                g2d.drawString("Exit 1", node.x - 35, node.y - size / 2 - 5);
-            } else if (node.id == 103) {
-                g2d.drawString("Exit 2", node.x + size / 2 - 10, node.y - size / 2 - 5);
+            if (node.id() == 100) {
+                g2d.drawString("Entry 1", node.x() - 35, node.y() + size / 2 + 10);
+            } else if (node.id() == 101) {
+                g2d.drawString("Entry 2", node.x() + size / 2 - 10, node.y() + size / 2 + 10);
+            } else if (node.id() == 102) {
+                g2d.drawString("Exit 1", node.x() - 35, node.y() - size / 2 - 5);
+            } else if (node.id() == 103) {
+                g2d.drawString("Exit 2", node.x() + size / 2 - 10, node.y() - size / 2 - 5);
             }
         }
     }
@@ -0,0 +1,37 @@
+package com.mycompany.dsa;
+
+/**
+ * One vehicle of a batch for ParkingEngine.allocate(List).
+ */
+public final class AllocationRequest {
+    private final VehicleClass vehicleClass;
+    private final ParkingTerm term;
+    private final int entrance;
+
+    public AllocationRequest(VehicleClass vehicleClass, ParkingTerm term, int entrance) {
+        this.vehicleClass = vehicleClass;
+        this.term = term;
+        this.entrance = entrance;
+    }
+
+    public VehicleClass vehicleClass() {
+        return vehicleClass;
+    }
+
+    public ParkingTerm term() {
+        return term;
+    }
+
+    public int entrance() {
+        return entrance;
+    }
+
+    @Override
+    public String toString() {
+        return "AllocationRequest{" +
+                "vehicleClass=" + vehicleClass +
+                ", term=" + term +
+                ", entrance=" + entrance +
+                '}';
+    }
+}
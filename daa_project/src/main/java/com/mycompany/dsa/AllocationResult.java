@@ -0,0 +1,77 @@
+package com.mycompany.dsa;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of ParkingEngine.allocate.
+ */
+public final class AllocationResult {
+    public enum Status {
+        ALLOCATED,
+        NO_SPOT_AVAILABLE,
+        INVALID_ENTRANCE
+    }
+
+    private final Status status;
+    private final int spot;
+    private final int entrance;
+    private final VehicleClass vehicleClass;
+    private final ParkingTerm term;
+    private final List<Integer> path;
+
+    AllocationResult(Status status, int spot, int entrance, VehicleClass vehicleClass, ParkingTerm term, List<Integer> path) {
+        this.status = status;
+        this.spot = spot;
+        this.entrance = entrance;
+        this.vehicleClass = vehicleClass;
+        this.term = term;
+        this.path = path;
+    }
+
+    static AllocationResult rejected(Status status, int entrance, VehicleClass vehicleClass, ParkingTerm term) {
+        return new AllocationResult(status, -1, entrance, vehicleClass, term, Collections.emptyList());
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean isAllocated() {
+        return status == Status.ALLOCATED;
+    }
+
+    // Allocated bay, or -1
+    public int spot() {
+        return spot;
+    }
+
+    public int entrance() {
+        return entrance;
+    }
+
+    public VehicleClass vehicleClass() {
+        return vehicleClass;
+    }
+
+    public ParkingTerm term() {
+        return term;
+    }
+
+    // Route from the entrance to the bay (empty unless allocated)
+    public List<Integer> path() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "AllocationResult{" +
+                "status=" + status +
+                ", spot=" + spot +
+                ", entrance=" + entrance +
+                ", vehicleClass=" + vehicleClass +
+                ", term=" + term +
+                ", path=" + path +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.mycompany.dsa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sliding window of pending arrivals for ParkingEngine.allocateOptimal.
+ *
+ * Once windowSize arrivals are pending, they are assigned together, but only the oldest
+ * commitSize of them get their bays; the others stay pending and are assigned again with the
+ * next arrivals, which may move them to a better bay. A window of one is the greedy policy.
+ * The engine must not be a concurrent() one: submit() and flush() throw IllegalStateException
+ * there as soon as they assign.
+ */
+public final class AssignmentWindow {
+    private final ParkingEngine engine;
+    private final int windowSize;
+    private final int commitSize;
+    private final List<AllocationRequest> pending = new ArrayList<>();
+
+    public AssignmentWindow(ParkingEngine engine, int windowSize, int commitSize) {
+        if (commitSize < 1 || commitSize > windowSize) {
+            throw new IllegalArgumentException("commitSize must be between 1 and windowSize " + windowSize + ": " + commitSize);
+        }
+        this.engine = engine;
+        this.windowSize = windowSize;
+        this.commitSize = commitSize;
+    }
+
+    // Add an arrival; returns the results of the arrivals this call committed, oldest first
+    public List<AllocationResult> submit(AllocationRequest request) {
+        pending.add(request);
+        return pending.size() < windowSize ? Collections.emptyList() : commit(commitSize);
+    }
+
+    // Commit every pending arrival, e.g. when the gates go quiet
+    public List<AllocationResult> flush() {
+        return pending.isEmpty() ? Collections.emptyList() : commit(pending.size());
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private List<AllocationResult> commit(int count) {
+        List<AllocationResult> results = engine.allocateOptimal(new ArrayList<>(pending), count);
+        pending.subList(0, count).clear();
+        return results;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mycompany.dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Thread-safe SkipBitSet.
+ *
+ * Bits are flipped with atomic OR/AND on their word. Summary bits are hints: a summary bit may
+ * stay set over an empty word (first() skips it), but a non-empty word always ends up with its
+ * summary bit set, because clear() re-checks the word after dropping the summary bit.
+ */
+final class AtomicSkipBitSet {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int size;
+    private final long[] words;
+    private final long[] summary;
+
+    AtomicSkipBitSet(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean get(int i) {
+        return ((long) LONGS.getVolatile(words, i >>> 6) & (1L << i)) != 0;
+    }
+
+    void set(int i) {
+        int w = i >>> 6;
+        LONGS.getAndBitwiseOr(words, w, 1L << i);
+        LONGS.getAndBitwiseOr(summary, w >>> 6, 1L << w);
+    }
+
+    void clear(int i) {
+        int w = i >>> 6;
+        long before = (long) LONGS.getAndBitwiseAnd(words, w, ~(1L << i));
+        if ((before & ~(1L << i)) == 0) {
+            LONGS.getAndBitwiseAnd(summary, w >>> 6, ~(1L << w));
+            if ((long) LONGS.getVolatile(words, w) != 0) { // A concurrent set() landed in between
+                LONGS.getAndBitwiseOr(summary, w >>> 6, 1L << w);
+            }
+        }
+    }
+
+    // Lowest set bit at the time each word is read, or -1 if none was seen
+    int first() {
+        for (int s = 0; s < summary.length; s++) {
+            long hints = (long) LONGS.getVolatile(summary, s);
+            while (hints != 0) {
+                int w = (s << 6) + Long.numberOfTrailingZeros(hints);
+                long word = (long) LONGS.getVolatile(words, w);
+                if (word != 0) {
+                    return (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+                hints &= hints - 1; // Stale hint
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,204 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Min-cost assignment of vehicles to bays by the auction algorithm (Bertsekas), on sparse
+ * candidate lists.
+ *
+ * Every unassigned vehicle bids for the candidate with the best value (negated cost minus price)
+ * and raises its price by the margin over the second-best candidate plus epsilon; each bay goes
+ * to its highest bidder and its previous owner bids again. All bids of a round are computed
+ * against the same prices (Jacobi auction), so large rounds run in parallel. Costs are scaled by
+ * the number of bidders + 1, which makes the assignment of the final epsilon = 1 phase optimal;
+ * earlier phases with a larger epsilon only find good prices quickly (epsilon scaling).
+ *
+ * To keep epsilon scaling exact, the problem is made square (Bertsekas' reduction of the
+ * asymmetric problem): every vehicle i also has a private "no bay" slot of cost unassignedCost,
+ * and every bay has a keeper who holds it idle or, at cost 0, takes the "no bay" slot of a
+ * vehicle that lists the bay. Keepers take the bays no vehicle wants, so the auction always ends
+ * with every vehicle on a bay or on its slot.
+ */
+final class AuctionAssignment {
+    private static final int EPSILON_FACTOR = 4;
+    private static final int PARALLEL_BIDDERS = 256; // Below this a round is cheaper on one core
+
+    private final int n; // Vehicles are persons 0 .. n - 1, keepers of bay j are persons n + j
+    private final int persons;
+    private final int[] objects; // Bay id of every bay object, ascending; object m + i is vehicle i's slot
+    private final int[][] candidates; // [person] -> object indices
+    private final long[][] benefits; // [person] -> scaled negated cost of each candidate
+    private final long[] price;
+    private final int[] owner;
+    private final int[] assigned;
+
+    // Bids of the current round, by position in the bidder queue
+    private final int[] bidObject;
+    private final long[] bidPrice;
+
+    private AuctionAssignment(int[][] bays, int[][] costs, long unassignedCost) {
+        n = bays.length;
+        int total = 0;
+        for (int[] list : bays) {
+            total += list.length;
+        }
+        int[] all = new int[total];
+        int k = 0;
+        for (int[] list : bays) {
+            System.arraycopy(list, 0, all, k, list.length);
+            k += list.length;
+        }
+        objects = Arrays.stream(all).sorted().distinct().toArray();
+        int m = objects.length;
+        persons = n + m;
+        long scale = persons + 1;
+
+        candidates = new int[persons][];
+        benefits = new long[persons][];
+        int[] listedBy = new int[m]; // Vehicles listing each bay, for the keepers' lists
+        for (int i = 0; i < n; i++) {
+            int count = bays[i].length;
+            candidates[i] = new int[count + 1];
+            benefits[i] = new long[count + 1];
+            for (int c = 0; c < count; c++) {
+                int j = Arrays.binarySearch(objects, bays[i][c]);
+                candidates[i][c] = j;
+                benefits[i][c] = -costs[i][c] * scale;
+                listedBy[j]++;
+            }
+            candidates[i][count] = m + i;
+            benefits[i][count] = -unassignedCost * scale;
+        }
+        for (int j = 0; j < m; j++) {
+            candidates[n + j] = new int[listedBy[j] + 1];
+            benefits[n + j] = new long[listedBy[j] + 1];
+            candidates[n + j][0] = j;
+            listedBy[j] = 1;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int c = 0; c < bays[i].length; c++) {
+                int j = candidates[i][c];
+                candidates[n + j][listedBy[j]++] = m + i;
+            }
+        }
+
+        price = new long[m + n];
+        owner = new int[m + n];
+        assigned = new int[persons];
+        bidObject = new int[persons];
+        bidPrice = new long[persons];
+    }
+
+    /**
+     * Assign every vehicle i one of its candidate bays bays[i] (drive costs costs[i]) with the
+     * smallest total cost, where leaving a vehicle without a bay costs unassignedCost. Returns the
+     * bay of every vehicle, or -1 for vehicles left without one.
+     */
+    static int[] solve(int[][] bays, int[][] costs, long unassignedCost) {
+        return new AuctionAssignment(bays, costs, unassignedCost).run();
+    }
+
+    private int[] run() {
+        long maxBenefit = 1; // Of the bays only: the "no bay" slots are rarely contested
+        for (int i = 0; i < n; i++) {
+            for (int c = 0; c < benefits[i].length - 1; c++) {
+                maxBenefit = Math.max(maxBenefit, -benefits[i][c]);
+            }
+        }
+        for (long epsilon = Math.max(1, maxBenefit / EPSILON_FACTOR); ; epsilon = Math.max(1, epsilon / EPSILON_FACTOR)) {
+            auction(epsilon);
+            if (epsilon == 1) {
+                break;
+            }
+        }
+
+        int m = objects.length;
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = assigned[i] < m ? objects[assigned[i]] : -1;
+        }
+        return result;
+    }
+
+    // One epsilon phase: start from no assignment, keep the prices of the previous phase
+    private void auction(long epsilon) {
+        Arrays.fill(owner, -1);
+        Arrays.fill(assigned, -1);
+        int[] queue = new int[persons];
+        int[] next = new int[persons];
+        for (int p = 0; p < persons; p++) {
+            queue[p] = p;
+        }
+        int count = persons;
+        int[] winner = new int[price.length];
+        long[] highest = new long[price.length];
+        Arrays.fill(winner, -1);
+
+        while (count > 0) {
+            int[] bidders = queue;
+            if (count >= PARALLEL_BIDDERS) {
+                IntStream.range(0, count).parallel().forEach(k -> bid(k, bidders[k], epsilon));
+            } else {
+                for (int k = 0; k < count; k++) {
+                    bid(k, bidders[k], epsilon);
+                }
+            }
+
+            // Highest bid per object, ties to the earlier bidder
+            for (int k = 0; k < count; k++) {
+                int j = bidObject[k];
+                if (winner[j] == -1 || bidPrice[k] > highest[j]) {
+                    winner[j] = queue[k];
+                    highest[j] = bidPrice[k];
+                }
+            }
+            int nextCount = 0;
+            for (int k = 0; k < count; k++) {
+                int i = queue[k];
+                int j = bidObject[k];
+                if (winner[j] != i) {
+                    next[nextCount++] = i;
+                    continue;
+                }
+                if (owner[j] != -1) {
+                    assigned[owner[j]] = -1;
+                    next[nextCount++] = owner[j];
+                }
+                owner[j] = i;
+                assigned[i] = j;
+                price[j] = highest[j];
+            }
+            for (int k = 0; k < count; k++) {
+                winner[bidObject[k]] = -1;
+            }
+
+            int[] swap = queue;
+            queue = next;
+            next = swap;
+            count = nextCount;
+        }
+    }
+
+    // Best candidate of person p at the current prices, and the price that keeps it best by epsilon
+    private void bid(int k, int p, long epsilon) {
+        int[] list = candidates[p];
+        long[] benefit = benefits[p];
+        int best = -1;
+        long bestValue = Long.MIN_VALUE;
+        long secondValue = Long.MIN_VALUE;
+        for (int c = 0; c < list.length; c++) {
+            long value = benefit[c] - price[list[c]];
+            if (value > bestValue) {
+                secondValue = bestValue;
+                bestValue = value;
+                best = list[c];
+            } else if (value > secondValue) {
+                secondValue = value;
+            }
+        }
+        long margin = secondValue == Long.MIN_VALUE ? 0 : bestValue - secondValue;
+        bidObject[k] = best;
+        bidPrice[k] = price[best] + margin + epsilon;
+    }
+}
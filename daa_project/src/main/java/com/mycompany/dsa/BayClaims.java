@@ -0,0 +1,37 @@
+package com.mycompany.dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free ownership bits for every node id.
+ *
+ * tryClaim() is a single atomic OR on the bay's word: exactly one of any number of threads
+ * claiming the same free bay sees its bit go from 0 to 1.
+ */
+final class BayClaims {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+
+    BayClaims(int size) {
+        words = new long[(size + 63) >>> 6];
+    }
+
+    boolean tryClaim(int bay) {
+        long mask = 1L << bay;
+        long before = (long) WORDS.getAndBitwiseOr(words, bay >>> 6, mask);
+        return (before & mask) == 0;
+    }
+
+    // Returns false if the bay was not claimed
+    boolean release(int bay) {
+        long mask = 1L << bay;
+        long before = (long) WORDS.getAndBitwiseAnd(words, bay >>> 6, ~mask);
+        return (before & mask) != 0;
+    }
+
+    boolean isClaimed(int bay) {
+        return ((long) WORDS.getVolatile(words, bay >>> 6) & (1L << bay)) != 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Time limits of the allocated bays, kept as deadlines on one TimingWheel.
+ *
+ * Gates only write a bay's deadline timestamp and mark the bay dirty, both lock-free, so
+ * allocate and release from any number of threads never wait on the wheel. The single thread
+ * calling advance() folds the dirty bays into the wheel, turns it to the current time and hands
+ * every expired bay over in one batch. Overstay is the time since the deadline, read from the
+ * clock when asked; nothing ticks per bay.
+ */
+final class BayTimers {
+    static final long TICK_MILLIS = 100;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final LongSupplier clockMillis;
+    private final AtomicLongArray deadline; // Bay -> deadline in clock millis, or NONE
+    private final AtomicSkipBitSet dirty; // Bays whose deadline changed since the last advance()
+    private final TimingWheel wheel;
+    private final int[] batch;
+
+    BayTimers(int capacity, LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+        this.deadline = new AtomicLongArray(capacity);
+        this.dirty = new AtomicSkipBitSet(capacity);
+        this.wheel = new TimingWheel(capacity, clockMillis.getAsLong() / TICK_MILLIS);
+        this.batch = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            deadline.set(i, NONE);
+        }
+    }
+
+    long nowMillis() {
+        return clockMillis.getAsLong();
+    }
+
+    void start(int bay, int limitSeconds) {
+        deadline.set(bay, nowMillis() + limitSeconds * 1000L);
+        dirty.set(bay);
+    }
+
+    void cancel(int bay) {
+        deadline.set(bay, NONE);
+        dirty.set(bay);
+    }
+
+    // The bay has a deadline and it has passed
+    boolean isExpired(int bay) {
+        long at = deadline.get(bay);
+        return at != NONE && nowMillis() >= at;
+    }
+
+    // Whole seconds since the bay's deadline, or 0 before it or without one
+    int overstayedSeconds(int bay) {
+        long at = deadline.get(bay);
+        return at == NONE ? 0 : (int) Math.max(0, (nowMillis() - at) / 1000);
+    }
+
+    // Deliver every bay that expired since the last call as one batch; returns the batch size
+    synchronized int advance(ExpiryHandler handler) {
+        for (int bay = dirty.first(); bay != -1; bay = dirty.first()) {
+            dirty.clear(bay); // Before reading the deadline: a concurrent change re-marks the bay
+            long at = deadline.get(bay);
+            if (at == NONE) {
+                wheel.cancel(bay);
+            } else {
+                wheel.schedule(bay, Math.floorDiv(at + TICK_MILLIS - 1, TICK_MILLIS));
+            }
+        }
+
+        long now = nowMillis();
+        int expired = wheel.advanceTo(now / TICK_MILLIS, batch);
+        int count = 0;
+        for (int i = 0; i < expired; i++) {
+            long at = deadline.get(batch[i]);
+            if (at != NONE && at <= now) { // Skip bays released or reallocated since the fold
+                batch[count++] = batch[i];
+            }
+        }
+        if (count > 0) {
+            handler.expired(batch, count);
+        }
+        return count;
+    }
+}
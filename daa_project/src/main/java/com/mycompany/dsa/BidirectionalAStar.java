@@ -0,0 +1,102 @@
+package com.mycompany.dsa;
+
+/**
+ * Bidirectional A* with average potentials (Ikeda et al.), on plain edge weights.
+ *
+ * The forward search from src and the backward search from dest over the reversed edges share
+ * one potential, p(v) = (h(v, dest) - h(src, v)) / 2 with the GridModel heuristic, so both run on
+ * the same reduced costs and the classic bidirectional Dijkstra stopping rule holds: once the
+ * smallest forward and backward keys add up to the best path found so far, no shorter path can
+ * exist. Keys are kept doubled so the potential stays an integer. Without a usable heuristic the
+ * potential is 0 and this is bidirectional Dijkstra.
+ *
+ * Each side expands the smaller of the two heap tops, so on long routes the searches meet
+ * roughly halfway and settle far fewer nodes than a one-directional search.
+ */
+final class BidirectionalAStar {
+    private BidirectionalAStar() {
+    }
+
+    /**
+     * Search from src to dest and return the node where the shortest path was joined, or -1 if
+     * dest is unreachable. The path is forward's prev chain to the meeting node, then backward's.
+     */
+    static int search(Graph graph, SearchContext forward, SearchContext backward, int src, int dest) {
+        CsrGraph out = graph.csr();
+        CsrGraph in = graph.reverseCsr();
+        GridModel grid = graph.grid();
+        IndexedMinHeap forwardQueue = forward.heap();
+        IndexedMinHeap backwardQueue = backward.heap();
+
+        forward.set(src, 0, -1);
+        forwardQueue.insert(src, potential(grid, src, src, dest));
+        backward.set(dest, 0, -1);
+        backwardQueue.insert(dest, -potential(grid, dest, src, dest));
+        long best = src == dest ? 0 : Long.MAX_VALUE;
+        int meet = src == dest ? src : -1;
+
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            long forwardTop = forwardQueue.peekKey();
+            long backwardTop = backwardQueue.peekKey();
+            if (best != Long.MAX_VALUE && forwardTop + backwardTop >= 2 * best) {
+                break; // Keys are doubled
+            }
+
+            boolean isForward = forwardTop <= backwardTop;
+            SearchContext side = isForward ? forward : backward;
+            SearchContext other = isForward ? backward : forward;
+            CsrGraph g = isForward ? out : in;
+            int sign = isForward ? 1 : -1;
+            int u = side.heap().poll();
+            int distU = side.dist(u);
+
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                int weight = g.weights[i];
+                if (weight == Graph.CLOSED) {
+                    continue;
+                }
+
+                if (distU + weight < side.dist(v)) {
+                    side.set(v, distU + weight, u);
+                    side.heap().push(v, 2 * (distU + weight) + sign * potential(grid, v, src, dest));
+                }
+                if (other.reached(v) && (long) side.dist(v) + other.dist(v) < best) {
+                    best = (long) side.dist(v) + other.dist(v);
+                    meet = v;
+                }
+            }
+        }
+        return meet;
+    }
+
+    // Twice the forward potential of v
+    private static int potential(GridModel grid, int v, int src, int dest) {
+        return grid.heuristic(v, dest) - grid.heuristic(src, v);
+    }
+
+    // Length of the path src .. meet .. dest
+    static int pathLength(SearchContext forward, SearchContext backward, int meet) {
+        int length = 0;
+        for (int at = meet; at != -1; at = forward.prev(at)) {
+            length++;
+        }
+        for (int at = backward.prev(meet); at != -1; at = backward.prev(at)) {
+            length++;
+        }
+        return length;
+    }
+
+    // Write the path src .. meet .. dest into out and return its length
+    static int writePath(SearchContext forward, SearchContext backward, int meet, int[] out) {
+        int length = pathLength(forward, backward, meet);
+        if (length > out.length) {
+            throw new IllegalArgumentException("Path of " + length + " nodes does not fit a buffer of " + out.length);
+        }
+        int i = forward.writePath(meet, out);
+        for (int at = backward.prev(meet); at != -1; at = backward.prev(at)) {
+            out[i++] = at;
+        }
+        return length;
+    }
+}
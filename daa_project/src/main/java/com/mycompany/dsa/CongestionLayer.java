@@ -0,0 +1,258 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic weight of every edge slot of the lot, added to the plain weight by the contextual
+ * searches (CBS and the combined search).
+ *
+ * The weight of slot u -> v sums three parts: OCCUPIED_PENALTY if v is an allocated bay,
+ * TRAFFIC_PENALTY for every one of the last RECENT_ROUTES routes handed out that drives the edge,
+ * and DRIVING_PENALTY for every vehicle still on its way to its bay along it. Allocate, release and
+ * arrival events add or take off their share on the slots they touch, so a search reads the
+ * weight of an edge with one array load instead of looking at the node it enters.
+ *
+ * The exit distance field and nearestTarget price occupancy only (occupancyPenalties()): traffic
+ * moves with every allocation, and repairing the field along each route would cost more than
+ * the allocation itself. Routes are only recorded once a contextual search ran (countTraffic()),
+ * so a lot that never runs one pays for occupancy alone; traffic counts from that search on.
+ *
+ * Every change stamps the slot with a new version(), so a route computed at version t is still
+ * priced right while unchangedSince(t, path) holds, whatever changed elsewhere in the lot. The
+ * slots whose occupancy part changed since the last drainChanged() are collected for the exit
+ * distance field repair.
+ */
+final class CongestionLayer {
+    static final int OCCUPIED_PENALTY = 10;
+    static final int TRAFFIC_PENALTY = 1;
+    static final int DRIVING_PENALTY = 2;
+    static final int RECENT_ROUTES = 64;
+
+    private final CsrGraph csr;
+    private final NodeStore store; // null for a graph without a node list
+    private final int[] inOffsets; // Slots entering v: inSlots[inOffsets[v] .. inOffsets[v + 1] - 1]
+    private final int[] inSlots;
+    private final int[] tails; // Tail node of every slot
+
+    private final int[] penalty;
+    private final int[] occupancy; // OCCUPIED_PENALTY part of penalty
+    private final int[] penalizedIn; // Slots with a penalty entering each node
+    private final long[] changedAt;
+    private long version;
+
+    // Recent routes as slot lists in a ring; the vehicle drives its route until arrived()
+    private final int[][] routeSlots = new int[RECENT_ROUTES][];
+    private final int[] routeLength = new int[RECENT_ROUTES];
+    private final int[] routeBay = new int[RECENT_ROUTES]; // Bay still being driven to, or -1
+    private final int[] drivingRoute; // Bay -> ring entry of the route driven to it, or -1
+    private int nextRoute;
+    private boolean countsTraffic;
+
+    // Slots changed since the last drainChanged(), each once
+    private final int[] changed;
+    private final int[] changedRound;
+    private int changedCount;
+    private int round = 1;
+
+    CongestionLayer(CsrGraph csr, NodeStore store) {
+        this.csr = csr;
+        this.store = store;
+        int V = csr.V;
+        int E = csr.edgeCount();
+        tails = new int[E];
+        inOffsets = new int[V + 1];
+        for (int u = 0; u < V; u++) {
+            for (int i = csr.offsets[u]; i < csr.offsets[u + 1]; i++) {
+                tails[i] = u;
+                inOffsets[csr.targets[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        inSlots = new int[E];
+        int[] next = Arrays.copyOf(inOffsets, V);
+        for (int i = 0; i < E; i++) {
+            inSlots[next[csr.targets[i]]++] = i;
+        }
+
+        penalty = new int[E];
+        occupancy = new int[E];
+        penalizedIn = new int[V];
+        changedAt = new long[E];
+        drivingRoute = new int[V];
+        Arrays.fill(drivingRoute, -1);
+        Arrays.fill(routeBay, -1);
+        changed = new int[E];
+        changedRound = new int[E];
+
+        for (int v = 0; v < V; v++) {
+            if (store != null && store.isAllocated(v)) {
+                occupancyChanged(v);
+            }
+        }
+        changedCount = 0; // The initial state is not a change
+        round++;
+    }
+
+    // Weight added to the plain weight of the slot
+    int penalty(int slot) {
+        return penalty[slot];
+    }
+
+    // Slots by index, for searches that read them in their inner loop
+    int[] penalties() {
+        return penalty;
+    }
+
+    // Occupancy part of the penalties, by slot
+    int[] occupancyPenalties() {
+        return occupancy;
+    }
+
+    // True if entering the node costs nothing extra over any edge
+    boolean isFree(int node) {
+        return penalizedIn[node] == 0;
+    }
+
+    // The slots entering v are inSlot(k) for k = inStart(v) .. inStart(v + 1) - 1
+    int inStart(int v) {
+        return inOffsets[v];
+    }
+
+    int inSlot(int k) {
+        return inSlots[k];
+    }
+
+    int tail(int slot) {
+        return tails[slot];
+    }
+
+    // From now on the lot records its routes through addRoute() and arrived()
+    void countTraffic() {
+        countsTraffic = true;
+    }
+
+    boolean countsTraffic() {
+        return countsTraffic;
+    }
+
+    // Bumped by every change
+    long version() {
+        return version;
+    }
+
+    // True if no edge of the path u0 -> u1 -> ... changed its dynamic weight after the version
+    boolean unchangedSince(long since, int[] path, int length) {
+        for (int k = 0; k + 1 < length; k++) {
+            int u = path[k];
+            for (int i = csr.offsets[u]; i < csr.offsets[u + 1]; i++) {
+                if (csr.targets[i] == path[k + 1] && changedAt[i] > since) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // The allocation state of the node changed: re-price the edges entering it
+    void occupancyChanged(int node) {
+        int occupied = store != null && store.isAllocated(node) ? OCCUPIED_PENALTY : 0;
+        for (int k = inOffsets[node]; k < inOffsets[node + 1]; k++) {
+            int slot = inSlots[k];
+            if (occupancy[slot] != occupied) {
+                adjust(slot, occupied - occupancy[slot]);
+                occupancy[slot] = occupied;
+                if (changedRound[slot] != round) {
+                    changedRound[slot] = round;
+                    changed[changedCount++] = slot;
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the route of a vehicle driving from its entrance to the bay: as recent traffic, and as
+     * driving until arrived(bay). The oldest recent route drops out.
+     */
+    void addRoute(int[] path, int length, int bay) {
+        arrived(bay); // A bay has one vehicle driving to it at most
+        int entry = nextRoute;
+        nextRoute = (nextRoute + 1) % RECENT_ROUTES;
+        dropRoute(entry);
+
+        int[] slots = routeSlots[entry];
+        if (slots == null || slots.length < length) {
+            slots = new int[Math.max(length, 16)];
+            routeSlots[entry] = slots;
+        }
+        int count = 0;
+        for (int k = 0; k + 1 < length; k++) {
+            int slot = csr.slot(path[k], path[k + 1]);
+            if (slot != -1) {
+                slots[count++] = slot;
+                adjust(slot, TRAFFIC_PENALTY + DRIVING_PENALTY);
+            }
+        }
+        routeLength[entry] = count;
+        routeBay[entry] = bay;
+        drivingRoute[bay] = entry;
+    }
+
+    // The vehicle driving to the bay got there, or gave up the bay
+    void arrived(int bay) {
+        int entry = drivingRoute[bay];
+        if (entry == -1) {
+            return;
+        }
+        drivingRoute[bay] = -1;
+        routeBay[entry] = -1;
+        int[] slots = routeSlots[entry];
+        for (int k = 0; k < routeLength[entry]; k++) {
+            adjust(slots[k], -DRIVING_PENALTY);
+        }
+    }
+
+    private void dropRoute(int entry) {
+        int delta = -TRAFFIC_PENALTY;
+        if (routeBay[entry] != -1) {
+            drivingRoute[routeBay[entry]] = -1;
+            routeBay[entry] = -1;
+            delta -= DRIVING_PENALTY;
+        }
+        int[] slots = routeSlots[entry];
+        for (int k = 0; k < routeLength[entry]; k++) {
+            adjust(slots[k], delta);
+        }
+        routeLength[entry] = 0;
+    }
+
+    private void adjust(int slot, int delta) {
+        int weight = penalty[slot] + delta;
+        if (penalty[slot] == 0) {
+            penalizedIn[csr.targets[slot]]++;
+        } else if (weight == 0) {
+            penalizedIn[csr.targets[slot]]--;
+        }
+        penalty[slot] = weight;
+        changedAt[slot] = ++version;
+    }
+
+    /**
+     * Tail nodes of the slots whose occupancy part changed since the last call, written to out;
+     * returns how many. Each changed slot is reported once, so out needs room for one entry per
+     * edge slot.
+     */
+    int drainChanged(int[] out) {
+        int count = changedCount;
+        for (int k = 0; k < count; k++) {
+            out[k] = tails[changed[k]];
+        }
+        changedCount = 0;
+        if (++round == 0) {
+            Arrays.fill(changedRound, 0);
+            round = 1;
+        }
+        return count;
+    }
+}
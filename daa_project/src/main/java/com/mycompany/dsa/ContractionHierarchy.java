@@ -0,0 +1,579 @@
+package com.mycompany.dsa;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy over the plain edge weights of a Graph, for Dijkstra-equivalent queries.
+ *
+ * Nodes are contracted one by one, cheapest first by edge difference plus the number of already
+ * contracted neighbours (updated lazily). Contracting v adds a shortcut u -> w for every pair of
+ * remaining neighbours whose shortest path runs through v, unless a bounded witness search finds
+ * one that does not. A query is a bidirectional Dijkstra that only climbs: forward over the arcs
+ * to higher-ranked nodes, backward over the arcs from them. Shortcuts remember the node they skip,
+ * so the path is unpacked recursively into original edges.
+ *
+ * Immutable once built and Serializable; fingerprint() identifies the topology and weights it
+ * was built from, so a stored hierarchy can be checked against the graph before it is used.
+ */
+final class ContractionHierarchy implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int WITNESS_SETTLE_LIMIT = 60; // Past this a shortcut is added without proof it is needed
+    private static final int ESTIMATE_SETTLE_LIMIT = 10; // Shorter witness searches when only ranking nodes
+
+    // A stored hierarchy is this class and its int arrays, nothing else may be instantiated from the stream
+    private static final ObjectInputFilter STORED_FORM = info -> {
+        Class<?> type = info.serialClass();
+        if (info.depth() > 2) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        if (type == null || type == ContractionHierarchy.class || type == int[].class) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    };
+
+    private final int V;
+    private final long fingerprint;
+    private final int[] rank;
+    // Upward arcs v -> w (rank[w] > rank[v]) listed at v, downward arcs u -> v (rank[u] > rank[v]) listed at v
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upMiddle; // Node a shortcut skips, or -1 for an original edge
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    private final int[] downMiddle;
+
+    private ContractionHierarchy(int V, long fingerprint, int[] rank, ArcList up, ArcList down) {
+        this.V = V;
+        this.fingerprint = fingerprint;
+        this.rank = rank;
+        this.upOffsets = new int[V + 1];
+        this.upTargets = new int[up.size];
+        this.upWeights = new int[up.size];
+        this.upMiddle = new int[up.size];
+        up.compile(V, upOffsets, upTargets, upWeights, upMiddle);
+        this.downOffsets = new int[V + 1];
+        this.downSources = new int[down.size];
+        this.downWeights = new int[down.size];
+        this.downMiddle = new int[down.size];
+        down.compile(V, downOffsets, downSources, downWeights, downMiddle);
+    }
+
+    static ContractionHierarchy build(CsrGraph graph) {
+        return new Builder(graph).build();
+    }
+
+    int size() {
+        return V;
+    }
+
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    // Upward and downward arcs together, original edges and shortcuts
+    int arcCount() {
+        return upTargets.length + downSources.length;
+    }
+
+    // Hash of the structure and the weights of the graph
+    static long fingerprint(CsrGraph graph) {
+        long hash = graph.V;
+        for (int u = 0; u < graph.V; u++) {
+            hash = hash * 31 + graph.offsets[u + 1];
+            for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+                hash = (hash * 31 + graph.targets[i]) * 31 + graph.weights[i];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Bidirectional upward search from src to dest; returns the top node of the shortest path,
+     * or -1 if dest is unreachable. forward.prev leads down to src, backward.prev down to dest.
+     */
+    int search(SearchContext forward, SearchContext backward, int src, int dest) {
+        IndexedMinHeap forwardQueue = forward.heap();
+        IndexedMinHeap backwardQueue = backward.heap();
+        forward.set(src, 0, -1);
+        forwardQueue.insert(src, 0);
+        backward.set(dest, 0, -1);
+        backwardQueue.insert(dest, 0);
+        long best = Long.MAX_VALUE;
+        int meet = -1;
+
+        while (!forwardQueue.isEmpty() || !backwardQueue.isEmpty()) {
+            int forwardTop = forwardQueue.isEmpty() ? Integer.MAX_VALUE : forwardQueue.peekKey();
+            int backwardTop = backwardQueue.isEmpty() ? Integer.MAX_VALUE : backwardQueue.peekKey();
+            if (Math.min(forwardTop, backwardTop) >= best) {
+                break; // Both searches only climb, so neither can still improve the best meeting
+            }
+
+            boolean isForward = forwardTop <= backwardTop;
+            SearchContext side = isForward ? forward : backward;
+            SearchContext other = isForward ? backward : forward;
+            int[] offsets = isForward ? upOffsets : downOffsets;
+            int[] heads = isForward ? upTargets : downSources;
+            int[] weights = isForward ? upWeights : downWeights;
+            int u = side.heap().poll();
+            int distU = side.dist(u);
+            if (other.reached(u) && (long) distU + other.dist(u) < best) {
+                best = (long) distU + other.dist(u);
+                meet = u;
+            }
+            if (isStalled(side, isForward, u, distU)) {
+                continue;
+            }
+
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = heads[i];
+                if (distU + weights[i] < side.dist(v)) {
+                    side.set(v, distU + weights[i], u);
+                    side.heap().push(v, distU + weights[i]);
+                }
+            }
+        }
+        return meet;
+    }
+
+    // Stall-on-demand: u is reached cheaper through a higher node, so its arcs cannot lead to a shortest path
+    private boolean isStalled(SearchContext side, boolean isForward, int u, int distU) {
+        int[] offsets = isForward ? downOffsets : upOffsets;
+        int[] heads = isForward ? downSources : upTargets;
+        int[] weights = isForward ? downWeights : upWeights;
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            if ((long) side.dist(heads[i]) + weights[i] < distU) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Number of nodes on the unpacked path src .. meet .. dest
+    int pathLength(SearchContext forward, SearchContext backward, int meet) {
+        return unpackPath(forward, backward, meet, null);
+    }
+
+    // Write the unpacked path src .. meet .. dest into out and return its length
+    int writePath(SearchContext forward, SearchContext backward, int meet, int[] out) {
+        int length = pathLength(forward, backward, meet);
+        if (length > out.length) {
+            throw new IllegalArgumentException("Path of " + length + " nodes does not fit a buffer of " + out.length);
+        }
+        return unpackPath(forward, backward, meet, out);
+    }
+
+    // Unpack every arc of the hierarchy path into out, or only count the nodes when out is null
+    private int unpackPath(SearchContext forward, SearchContext backward, int meet, int[] out) {
+        // forward.prev runs from meet down to src, so collect that half first to unpack it in order
+        int hops = 0;
+        for (int at = meet; forward.prev(at) != -1; at = forward.prev(at)) {
+            hops++;
+        }
+        int[] chain = new int[hops + 1];
+        for (int i = hops, at = meet; i >= 0; i--, at = forward.prev(at)) {
+            chain[i] = at;
+        }
+
+        if (out != null) {
+            out[0] = chain[0];
+        }
+        int length = 1;
+        int[] stack = new int[64];
+        for (int i = 0; i < hops; i++) {
+            length = unpackArc(chain[i], chain[i + 1], out, length, stack);
+        }
+        for (int from = meet, to = backward.prev(meet); to != -1; from = to, to = backward.prev(to)) {
+            length = unpackArc(from, to, out, length, stack);
+        }
+        return length;
+    }
+
+    // Append the nodes after a up to and including b, expanding shortcuts; returns the new length
+    private int unpackArc(int a, int b, int[] out, int length, int[] stack) {
+        int top = 0;
+        stack[top++] = a;
+        stack[top++] = b;
+        while (top > 0) {
+            int y = stack[--top];
+            int x = stack[--top];
+            int middle = middle(x, y);
+            if (middle == -1) {
+                if (out != null) {
+                    out[length] = y;
+                }
+                length++;
+            } else {
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = middle; // Second half, popped after the first
+                stack[top++] = y;
+                stack[top++] = x;
+                stack[top++] = middle;
+            }
+        }
+        return length;
+    }
+
+    // Node skipped by the arc x -> y, or -1 if it is an original edge
+    private int middle(int x, int y) {
+        if (rank[x] < rank[y]) {
+            for (int i = upOffsets[x]; i < upOffsets[x + 1]; i++) {
+                if (upTargets[i] == y) {
+                    return upMiddle[i];
+                }
+            }
+        } else {
+            for (int i = downOffsets[y]; i < downOffsets[y + 1]; i++) {
+                if (downSources[i] == x) {
+                    return downMiddle[i];
+                }
+            }
+        }
+        throw new IllegalStateException("No arc " + x + " -> " + y + " in the hierarchy");
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        ObjectOutputStream objects = new ObjectOutputStream(out);
+        objects.writeObject(this);
+        objects.flush();
+    }
+
+    static ContractionHierarchy readFrom(InputStream in) throws IOException {
+        ObjectInputStream objects = new ObjectInputStream(in);
+        objects.setObjectInputFilter(STORED_FORM);
+        try {
+            return (ContractionHierarchy) objects.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Not a contraction hierarchy", e);
+        }
+    }
+
+    // Reject a stream whose arrays do not fit V, before any query can index into them
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (V < 0 || rank == null || rank.length != V) {
+            throw new InvalidObjectException("Rank array does not match " + V + " nodes");
+        }
+        checkArcs(upOffsets, upTargets, upWeights, upMiddle);
+        checkArcs(downOffsets, downSources, downWeights, downMiddle);
+    }
+
+    private void checkArcs(int[] offsets, int[] nodes, int[] weights, int[] middles) throws InvalidObjectException {
+        if (offsets == null || nodes == null || weights == null || middles == null || offsets.length != V + 1
+                || offsets[0] != 0 || offsets[V] != nodes.length || weights.length != nodes.length || middles.length != nodes.length) {
+            throw new InvalidObjectException("Arc arrays do not match " + V + " nodes");
+        }
+        for (int v = 0; v < V; v++) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw new InvalidObjectException("Arc offsets are not ascending at node " + v);
+            }
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] < 0 || nodes[i] >= V || middles[i] < -1 || middles[i] >= V) {
+                throw new InvalidObjectException("Arc " + i + " refers to a node outside 0.." + (V - 1));
+            }
+        }
+    }
+
+    // Growable list of arcs, compiled into CSR arrays grouped by the node they are listed at
+    private static final class ArcList {
+        int[] at = new int[16];
+        int[] head = new int[16];
+        int[] weight = new int[16];
+        int[] middle = new int[16];
+        int size;
+
+        void add(int listedAt, int headNode, int arcWeight, int skipped) {
+            if (size == at.length) {
+                at = Arrays.copyOf(at, size * 2);
+                head = Arrays.copyOf(head, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                middle = Arrays.copyOf(middle, size * 2);
+            }
+            at[size] = listedAt;
+            head[size] = headNode;
+            weight[size] = arcWeight;
+            middle[size] = skipped;
+            size++;
+        }
+
+        void compile(int V, int[] offsets, int[] heads, int[] weights, int[] middles) {
+            for (int i = 0; i < size; i++) {
+                offsets[at[i] + 1]++;
+            }
+            for (int v = 0; v < V; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] next = Arrays.copyOf(offsets, V);
+            for (int i = 0; i < size; i++) {
+                int slot = next[at[i]]++;
+                heads[slot] = head[i];
+                weights[slot] = weight[i];
+                middles[slot] = middle[i];
+            }
+        }
+    }
+
+    // Contraction state: the remaining graph as growable in/out lists with one arc per node pair
+    private static final class Builder {
+        private final int V;
+        private final CsrGraph graph;
+        private final int[][] outTo;
+        private final int[][] outWeight;
+        private final int[][] outMiddle;
+        private final int[] outSize;
+        private final int[][] inFrom;
+        private final int[][] inWeight;
+        private final int[] inSize;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] level; // Longest chain of contracted nodes below, keeps the hierarchy shallow
+
+        // Witness search scratch space
+        private final int[] witnessDist;
+        private final int[] witnessStamp;
+        private final IndexedMinHeap witnessQueue;
+        private int witnessRound;
+
+        Builder(CsrGraph graph) {
+            this.graph = graph;
+            this.V = graph.V;
+            outTo = new int[V][];
+            outWeight = new int[V][];
+            outMiddle = new int[V][];
+            outSize = new int[V];
+            inFrom = new int[V][];
+            inWeight = new int[V][];
+            inSize = new int[V];
+            contracted = new boolean[V];
+            contractedNeighbours = new int[V];
+            level = new int[V];
+            witnessDist = new int[V];
+            witnessStamp = new int[V];
+            witnessQueue = new IndexedMinHeap(V);
+            for (int v = 0; v < V; v++) {
+                outTo[v] = new int[4];
+                outWeight[v] = new int[4];
+                outMiddle[v] = new int[4];
+                inFrom[v] = new int[4];
+                inWeight[v] = new int[4];
+            }
+            for (int u = 0; u < V; u++) {
+                for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+                    int v = graph.targets[i];
+                    if (graph.weights[i] != Graph.CLOSED && v != u) {
+                        addArc(u, v, graph.weights[i], -1);
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            IndexedMinHeap order = new IndexedMinHeap(V);
+            for (int v = 0; v < V; v++) {
+                order.insert(v, priority(v));
+            }
+
+            int[] rank = new int[V];
+            ArcList up = new ArcList();
+            ArcList down = new ArcList();
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                int updated = priority(v); // Lazy update: contract only if v is still the cheapest
+                if (!order.isEmpty() && updated > order.peekKey()) {
+                    order.insert(v, updated);
+                    continue;
+                }
+
+                rank[v] = next++;
+                for (int i = 0; i < outSize[v]; i++) {
+                    int w = outTo[v][i];
+                    if (!contracted[w]) {
+                        up.add(v, w, outWeight[v][i], outMiddle[v][i]);
+                        contractedNeighbours[w]++;
+                        level[w] = Math.max(level[w], level[v] + 1);
+                    }
+                }
+                for (int i = 0; i < inSize[v]; i++) {
+                    int u = inFrom[v][i];
+                    if (!contracted[u]) {
+                        down.add(v, u, inWeight[v][i], middleOf(u, v));
+                        contractedNeighbours[u]++;
+                        level[u] = Math.max(level[u], level[v] + 1);
+                    }
+                }
+                contract(v, true);
+                contracted[v] = true;
+                detach(v);
+            }
+            return new ContractionHierarchy(V, fingerprint(graph), rank, up, down);
+        }
+
+        // Edge difference plus contracted neighbours and level; lower is contracted first
+        private int priority(int v) {
+            int shortcuts = contract(v, false);
+            int degree = 0;
+            for (int i = 0; i < outSize[v]; i++) {
+                degree += contracted[outTo[v][i]] ? 0 : 1;
+            }
+            for (int i = 0; i < inSize[v]; i++) {
+                degree += contracted[inFrom[v][i]] ? 0 : 1;
+            }
+            return shortcuts - degree + contractedNeighbours[v] + level[v];
+        }
+
+        // Drop the arcs of a contracted node from its neighbours' lists
+        private void detach(int v) {
+            for (int i = 0; i < outSize[v]; i++) {
+                int w = outTo[v][i];
+                for (int j = 0; j < inSize[w]; j++) {
+                    if (inFrom[w][j] == v) {
+                        int last = --inSize[w];
+                        inFrom[w][j] = inFrom[w][last];
+                        inWeight[w][j] = inWeight[w][last];
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < inSize[v]; i++) {
+                int u = inFrom[v][i];
+                for (int j = 0; j < outSize[u]; j++) {
+                    if (outTo[u][j] == v) {
+                        int last = --outSize[u];
+                        outTo[u][j] = outTo[u][last];
+                        outWeight[u][j] = outWeight[u][last];
+                        outMiddle[u][j] = outMiddle[u][last];
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Count, and with add also insert, the shortcuts needed to take v out of the remaining graph
+        private int contract(int v, boolean add) {
+            int maxOut = 0;
+            for (int j = 0; j < outSize[v]; j++) {
+                if (!contracted[outTo[v][j]]) {
+                    maxOut = Math.max(maxOut, outWeight[v][j]);
+                }
+            }
+            int shortcuts = 0;
+            for (int i = 0; i < inSize[v]; i++) {
+                int u = inFrom[v][i];
+                if (contracted[u]) {
+                    continue;
+                }
+                int viaV = inWeight[v][i];
+                witnessSearch(u, v, viaV + maxOut, add ? WITNESS_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+                for (int j = 0; j < outSize[v]; j++) {
+                    int w = outTo[v][j];
+                    if (contracted[w] || w == u) {
+                        continue;
+                    }
+                    int length = viaV + outWeight[v][j];
+                    if (witness(w) > length) {
+                        shortcuts++;
+                        if (add) {
+                            addArc(u, w, length, v);
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // Dijkstra from u around v over the remaining graph, up to distance limit or settleLimit nodes
+        private void witnessSearch(int u, int v, int limit, int settleLimit) {
+            if (++witnessRound == 0) {
+                Arrays.fill(witnessStamp, 0);
+                witnessRound = 1;
+            }
+            witnessQueue.clear();
+            setWitness(u, 0);
+            witnessQueue.insert(u, 0);
+            int settled = 0;
+            while (!witnessQueue.isEmpty() && settled++ < settleLimit) {
+                int x = witnessQueue.poll();
+                int distX = witnessDist[x];
+                for (int i = 0; i < outSize[x]; i++) {
+                    int y = outTo[x][i];
+                    if (y == v || contracted[y]) {
+                        continue;
+                    }
+                    int d = distX + outWeight[x][i];
+                    if (d <= limit && d < witness(y)) {
+                        setWitness(y, d);
+                        witnessQueue.push(y, d);
+                    }
+                }
+            }
+        }
+
+        private int witness(int x) {
+            return witnessStamp[x] == witnessRound ? witnessDist[x] : Integer.MAX_VALUE;
+        }
+
+        private void setWitness(int x, int d) {
+            witnessDist[x] = d;
+            witnessStamp[x] = witnessRound;
+        }
+
+        // Add u -> w, or lower the weight of the existing arc
+        private void addArc(int u, int w, int weight, int middle) {
+            for (int i = 0; i < outSize[u]; i++) {
+                if (outTo[u][i] == w) {
+                    if (weight < outWeight[u][i]) {
+                        outWeight[u][i] = weight;
+                        outMiddle[u][i] = middle;
+                        for (int j = 0; j < inSize[w]; j++) {
+                            if (inFrom[w][j] == u) {
+                                inWeight[w][j] = weight;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            if (outSize[u] == outTo[u].length) {
+                int capacity = outSize[u] * 2;
+                outTo[u] = Arrays.copyOf(outTo[u], capacity);
+                outWeight[u] = Arrays.copyOf(outWeight[u], capacity);
+                outMiddle[u] = Arrays.copyOf(outMiddle[u], capacity);
+            }
+            outTo[u][outSize[u]] = w;
+            outWeight[u][outSize[u]] = weight;
+            outMiddle[u][outSize[u]] = middle;
+            outSize[u]++;
+            if (inSize[w] == inFrom[w].length) {
+                int capacity = inSize[w] * 2;
+                inFrom[w] = Arrays.copyOf(inFrom[w], capacity);
+                inWeight[w] = Arrays.copyOf(inWeight[w], capacity);
+            }
+            inFrom[w][inSize[w]] = u;
+            inWeight[w][inSize[w]] = weight;
+            inSize[w]++;
+        }
+
+        private int middleOf(int u, int w) {
+            for (int i = 0; i < outSize[u]; i++) {
+                if (outTo[u][i] == w) {
+                    return outMiddle[u][i];
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mycompany.dsa;
+
+/**
+ * Compressed-sparse-row adjacency with a fixed structure.
+ *
+ * The out-edges of node u are the slots offsets[u] .. offsets[u + 1] - 1 of targets and weights,
+ * in the order they were added. The structure never changes after build; only weights can be
+ * updated in place.
+ */
+final class CsrGraph {
+    final int V;
+    final int[] offsets; // V + 1 entries
+    final int[] targets; // Head node of every edge slot
+    final int[] weights; // Weight of every edge slot, updated in place by Graph.setEdgeWeight
+    final int[] edgeIds; // Index of every edge slot in the edge list it was built from
+
+    private CsrGraph(int V, int[] offsets, int[] targets, int[] weights, int[] edgeIds) {
+        this.V = V;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeIds = edgeIds;
+    }
+
+    // Build from directed edge arrays (the first edgeCount entries are used)
+    static CsrGraph build(int V, int[] from, int[] to, int[] weight, int edgeCount) {
+        int[] offsets = new int[V + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int u = 0; u < V; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        int[] edgeIds = new int[edgeCount];
+        int[] next = new int[V];
+        System.arraycopy(offsets, 0, next, 0, V);
+        for (int i = 0; i < edgeCount; i++) {
+            int slot = next[from[i]]++;
+            targets[slot] = to[i];
+            weights[slot] = weight[i];
+            edgeIds[slot] = i;
+        }
+
+        return new CsrGraph(V, offsets, targets, weights, edgeIds);
+    }
+
+    // Copy whose weights stay as they are now; the fixed structure is shared
+    CsrGraph snapshot() {
+        return new CsrGraph(V, offsets, targets, weights.clone(), edgeIds);
+    }
+
+    int edgeCount() {
+        return targets.length;
+    }
+
+    int degree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    // Slot of the first edge u -> v, or -1 if there is none
+    int slot(int u, int v) {
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            if (targets[i] == v) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -10,6 +10,7 @@ public class DSA {
         // Initialize nodes and edges
         List<Node> nodes = new ArrayList<>();
         List<Edge> edges = new ArrayList<>();
+        NodeStore store = new NodeStore(104); // Node state, viewed through the Node objects
 
         int V = 103; // Total nodes in a 10x10 grid plus entrances and exits
         int gridSize = 45; // Grid size for compact layout
@@ -33,7 +34,7 @@ public class DSA {
                 int x = startX + j * (gridSize + padding);
                 int y = startY + i * (gridSize + padding);
                 boolean isTwoWheeler = (i >= 5); // Assume rows 5-9 are two-wheeler spots
-                nodes.add(new Node(i * 10 + j, x, y, false, false, isTwoWheeler));
+                nodes.add(store.add(i * 10 + j, i, j, x, y, isTwoWheeler, false, false));
 
                 // Add horizontal edges
                 if (j < 9) {
@@ -51,10 +52,10 @@ public class DSA {
 
         // Add entrances and exits
      // Add entrances and exits
-        nodes.add(new Node(100, startX - (gridSize + padding), startY + 2 * (gridSize + padding), true, false, false)); // Entrance 1
-        nodes.add(new Node(101, startX + 10 * (gridSize + padding), startY + 7 * (gridSize + padding), true, false, false)); // Entrance 2
-        nodes.add(new Node(102, startX + 5 * (gridSize + padding), startY - (gridSize + padding), false, true, false)); // Exit
-        nodes.add(new Node(103, startX + 7 * (gridSize + padding), startY - (gridSize + padding), false, false, true)); // Exit 2
+        nodes.add(store.add(100, 2, -1, startX - (gridSize + padding), startY + 2 * (gridSize + padding), false, true, false)); // Entrance 1
+        nodes.add(store.add(101, 7, 10, startX + 10 * (gridSize + padding), startY + 7 * (gridSize + padding), false, true, false)); // Entrance 2
+        nodes.add(store.add(102, -1, 5, startX + 5 * (gridSize + padding), startY - (gridSize + padding), false, false, true)); // Exit
+        nodes.add(store.add(103, -1, 7, startX + 7 * (gridSize + padding), startY - (gridSize + padding), false, false, true)); // Exit 2
 
         // Connect entrances to the grid
         edges.add(new Edge(100, 20, 1)); // Entrance 1 connects to node 20
@@ -64,8 +65,9 @@ public class DSA {
         edges.add(new Edge(102, 4, 1)); // Exit connects to node 4
         edges.add(new Edge(103, 6, 1)); // Exit 2 connects to node 6
 
-        // Pass initialized nodes and edges to VehicleSelection
-        VehicleSelection vehicleSelection = new VehicleSelection(nodes, edges);
+        // Build the allocation engine (and its lot graph) once and drive it from the UI
+        ParkingEngine engine = new ParkingEngine(nodes, edges);
+        VehicleSelection vehicleSelection = new VehicleSelection(engine);
         vehicleSelection.setVisible(true);
     }
 }
@@ -0,0 +1,219 @@
+package com.mycompany.dsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bays ranked by true drive cost from every entrance.
+ *
+ * Runs one shortest-path tree per isEntry node over the lot graph (plain edge weights) and keeps
+ * its predecessor array, so the route to any bay is read from the tree without a new search.
+ * Bays are split by vehicle class; within a class they are ordered by cost, then id. Bays that
+ * cannot be reached from an entrance are left out of that entrance's order.
+ *
+ * Each class is further split into two term zones, the one policy both engines allocate by:
+ * the half of its bays closest to any entrance is the short-term zone and the rest is the
+ * long-term zone, so short stays keep the short drives. A request takes its own zone first and
+ * the other zone of its class when its own is full.
+ */
+final class EntranceRanking {
+    static final int CLASSES = 2; // 0 = four-wheeler, 1 = two-wheeler
+    static final int ZONES = CLASSES * 2;
+
+    final int[] entranceIds;
+    private final int[] entranceSlot; // Node id -> index in entranceIds, or -1
+    private final int[] bayClass; // Node id -> vehicle class, or -1 for entrances and exits
+
+    private final int[][][] order; // [entrance][class] -> bays by rank
+    private final int[][][] cost; // [entrance][class] -> drive cost of the bay at each rank
+    private final int[][] rank; // [entrance][bay] -> rank within its class, or -1
+    private final int[][] prev; // [entrance][node] -> predecessor in the shortest-path tree
+    private final int[][] closestFirst; // [class] -> reachable bays by (cost from their closest entrance, id)
+    private final boolean[] longTermZone; // Node id -> bay is in the long-term zone of its class
+
+    EntranceRanking(Graph graph) {
+        NodeStore store = graph.store();
+        int V = graph.size();
+        entranceSlot = new int[V];
+        bayClass = new int[V];
+        Arrays.fill(entranceSlot, -1);
+        Arrays.fill(bayClass, -1);
+
+        int entrances = 0;
+        for (int v = 0; v < V; v++) {
+            if (store.isEntry(v)) {
+                entranceSlot[v] = entrances++;
+            } else if (!store.isExit(v)) {
+                bayClass[v] = vehicleClass(store.isTwoWheeler(v));
+            }
+        }
+        entranceIds = new int[entrances];
+        for (int v = 0; v < V; v++) {
+            if (store.isEntry(v)) {
+                entranceIds[entranceSlot[v]] = v;
+            }
+        }
+
+        order = new int[entrances][CLASSES][];
+        cost = new int[entrances][CLASSES][];
+        rank = new int[entrances][];
+        prev = new int[entrances][];
+        int[] dist = new int[V];
+        for (int e = 0; e < entrances; e++) {
+            prev[e] = new int[V];
+            graph.shortestPathTree(entranceIds[e], dist, prev[e]);
+            rank[e] = new int[V];
+            Arrays.fill(rank[e], -1);
+            for (int c = 0; c < CLASSES; c++) {
+                rankClass(e, c, dist);
+            }
+        }
+
+        closestFirst = new int[CLASSES][];
+        longTermZone = new boolean[V];
+        for (int c = 0; c < CLASSES; c++) {
+            closestFirst[c] = closestFirst(c, V);
+            for (int i = (closestFirst[c].length + 1) / 2; i < closestFirst[c].length; i++) {
+                longTermZone[closestFirst[c][i]] = true;
+            }
+        }
+    }
+
+    // Bays of the class reachable from some entrance, by (closest entrance cost, id)
+    private int[] closestFirst(int c, int V) {
+        int[] best = new int[V];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        int count = 0;
+        for (int e = 0; e < entranceIds.length; e++) {
+            for (int r = 0; r < order[e][c].length; r++) {
+                int bay = order[e][c][r];
+                if (best[bay] == Integer.MAX_VALUE) {
+                    count++;
+                }
+                best[bay] = Math.min(best[bay], cost[e][c][r]);
+            }
+        }
+        long[] keys = new long[count];
+        int k = 0;
+        for (int v = 0; v < V; v++) {
+            if (best[v] != Integer.MAX_VALUE) {
+                keys[k++] = ((long) best[v] << 32) | v;
+            }
+        }
+        Arrays.sort(keys);
+        int[] bays = new int[count];
+        for (int i = 0; i < count; i++) {
+            bays[i] = (int) keys[i];
+        }
+        return bays;
+    }
+
+    private void rankClass(int e, int c, int[] dist) {
+        int V = bayClass.length;
+        int reachable = 0;
+        for (int v = 0; v < V; v++) {
+            if (bayClass[v] == c && dist[v] != SearchContext.UNREACHED) {
+                reachable++;
+            }
+        }
+
+        // Sort (cost, id) pairs packed into longs: costs are non-negative ints
+        long[] keys = new long[reachable];
+        int k = 0;
+        for (int v = 0; v < V; v++) {
+            if (bayClass[v] == c && dist[v] != SearchContext.UNREACHED) {
+                keys[k++] = ((long) dist[v] << 32) | v;
+            }
+        }
+        Arrays.sort(keys);
+
+        order[e][c] = new int[reachable];
+        cost[e][c] = new int[reachable];
+        for (int r = 0; r < reachable; r++) {
+            int bay = (int) keys[r];
+            order[e][c][r] = bay;
+            cost[e][c][r] = (int) (keys[r] >>> 32);
+            rank[e][bay] = r;
+        }
+    }
+
+    static int vehicleClass(boolean isTwoWheeler) {
+        return isTwoWheeler ? 1 : 0;
+    }
+
+    static int zone(int vehicleClass, boolean isLongTerm) {
+        return vehicleClass * 2 + (isLongTerm ? 1 : 0);
+    }
+
+    // Term zone of the bay, or -1 for entrances and exits
+    int zoneOf(int bay) {
+        return bayClass[bay] == -1 ? -1 : zone(bayClass[bay], longTermZone[bay]);
+    }
+
+    // Reachable bays of the class, closest to any entrance first; the first half is short-term
+    int[] closestFirst(int c) {
+        return closestFirst[c];
+    }
+
+    int entranceCount() {
+        return entranceIds.length;
+    }
+
+    // Index of the entrance node in entranceIds, or -1 if the node is not an entrance
+    int entranceSlot(int entranceId) {
+        return entranceSlot[entranceId];
+    }
+
+    int bayClass(int bay) {
+        return bayClass[bay];
+    }
+
+    // Number of bays of the class reachable from the entrance
+    int size(int e, int c) {
+        return order[e][c].length;
+    }
+
+    int bayAt(int e, int c, int rank) {
+        return order[e][c][rank];
+    }
+
+    int costAt(int e, int c, int rank) {
+        return cost[e][c][rank];
+    }
+
+    // Rank of the bay from entrance e within its class, or -1 if it cannot be reached
+    int rank(int e, int bay) {
+        return rank[e][bay];
+    }
+
+    // Route from the entrance to the bay, read from the stored tree (empty if unreachable)
+    List<Integer> path(int e, int bay) {
+        if (rank[e][bay] == -1) {
+            return Collections.emptyList();
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int at = bay; at != -1; at = prev[e][at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Allocation-free variant: writes the route into out and returns its length (0 if unreachable)
+    int path(int e, int bay, int[] out) {
+        if (rank[e][bay] == -1) {
+            return 0;
+        }
+        int length = 0;
+        for (int at = bay; at != -1; at = prev[e][at]) {
+            length++;
+        }
+        int i = length;
+        for (int at = bay; at != -1; at = prev[e][at]) {
+            out[--i] = at;
+        }
+        return length;
+    }
+}
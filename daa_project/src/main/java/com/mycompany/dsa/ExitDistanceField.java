@@ -0,0 +1,229 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+
+/**
+ * Distance from every node to its nearest exit, with the next hop towards it.
+ *
+ * Built by one reverse multi-source Dijkstra from all isExit nodes, using the same cost model as
+ * Graph.nearestTarget: the weight of an edge plus the CongestionLayer occupancy penalty of the
+ * node it enters. Edge weight and occupancy changes are repaired incrementally (dynamic SSSP in the style
+ * of Ramalingam and Reps): only the nodes whose shortest path used the changed edge, and the
+ * nodes that can now do better, are recomputed. Lookups are plain array reads.
+ *
+ * Edges are assumed to be symmetric, which holds for every edge added through Graph.addEdge.
+ */
+final class ExitDistanceField {
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private final int V;
+    private final boolean[] isExit;
+    private final int exitCount;
+
+    private final int[] dist;
+    private final int[] nearestExit;
+    private final int[] nextHop;
+
+    // Repair scratch space
+    private final IndexedMinHeap heap;
+    private final int[] invalid; // Stamped with repairRound while a node is being recomputed
+    private final int[] queue;
+    private final int[] seeds; // Nodes whose outgoing step costs changed
+    private final int[] seeded; // Stamped with seedRound once a node is in seeds
+    private int repairRound;
+    private int seedRound;
+
+    ExitDistanceField(Graph graph) {
+        this.graph = graph;
+        this.V = graph.size();
+        this.isExit = new boolean[V];
+        this.dist = new int[V];
+        this.nearestExit = new int[V];
+        this.nextHop = new int[V];
+        this.heap = new IndexedMinHeap(V);
+        this.invalid = new int[V];
+        this.queue = new int[V];
+        this.seeds = new int[V];
+        this.seeded = new int[V];
+
+        NodeStore store = graph.store();
+        int exits = 0;
+        for (int i = 0; i < V; i++) {
+            if (store.isExit(i)) {
+                isExit[i] = true;
+                exits++;
+            }
+        }
+        this.exitCount = exits;
+        rebuild();
+    }
+
+    int exitCount() {
+        return exitCount;
+    }
+
+    boolean isExit(int node) {
+        return isExit[node];
+    }
+
+    int distance(int node) {
+        return dist[node];
+    }
+
+    int nearestExit(int node) {
+        return nearestExit[node];
+    }
+
+    // Next node on the way to nearestExit(node), or -1 at an exit or when no exit is reachable
+    int nextHop(int node) {
+        return nextHop[node];
+    }
+
+    // Full recomputation from all exits
+    void rebuild() {
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(nearestExit, -1);
+        Arrays.fill(nextHop, -1);
+        heap.clear();
+        for (int i = 0; i < V; i++) {
+            if (isExit[i]) {
+                dist[i] = 0;
+                nearestExit[i] = i;
+                heap.insert(i, 0);
+            }
+        }
+        propagate();
+    }
+
+    // The weight of u <-> v changed (including closing or reopening it)
+    void edgeChanged(int u, int v) {
+        seeds[0] = u;
+        seeds[1] = v;
+        repair(2);
+    }
+
+    // The occupancy penalty of edges leaving each of the count nodes changed: one repair for all of them
+    void stepsChanged(int[] from, int count) {
+        if (++seedRound == 0) {
+            Arrays.fill(seeded, 0);
+            seedRound = 1;
+        }
+        int seedCount = 0;
+        for (int k = 0; k < count; k++) {
+            int x = from[k];
+            if (seeded[x] != seedRound) {
+                seeded[x] = seedRound;
+                seeds[seedCount++] = x;
+            }
+        }
+        repair(seedCount);
+    }
+
+    private void repair(int count) {
+        long start = Metrics.start();
+        int[] affected = seeds;
+        CsrGraph g = graph.csr();
+        heap.clear();
+        if (++repairRound == 0) {
+            Arrays.fill(invalid, 0);
+            repairRound = 1;
+        }
+
+        // Nodes whose tree edge got more expensive lose their distance, together with their subtree
+        int head = 0;
+        int tail = 0;
+        for (int k = 0; k < count; k++) {
+            int x = affected[k];
+            if (invalid[x] != repairRound && !isExit[x] && nextHop[x] != -1
+                    && stepCost(g, x, nextHop[x]) > dist[x] - dist[nextHop[x]]) {
+                invalid[x] = repairRound;
+                queue[tail++] = x;
+            }
+        }
+        while (head < tail) {
+            int y = queue[head++];
+            for (int i = g.offsets[y]; i < g.offsets[y + 1]; i++) {
+                int x = g.targets[i];
+                if (nextHop[x] == y && invalid[x] != repairRound) {
+                    invalid[x] = repairRound;
+                    queue[tail++] = x;
+                }
+            }
+        }
+        for (int k = 0; k < tail; k++) {
+            int x = queue[k];
+            dist[x] = UNREACHABLE;
+            nearestExit[x] = -1;
+            nextHop[x] = -1;
+        }
+
+        // Invalidated nodes restart from their best valid neighbour; affected nodes may now improve
+        for (int k = 0; k < tail; k++) {
+            relaxFromNeighbours(g, queue[k]);
+        }
+        for (int k = 0; k < count; k++) {
+            if (!isExit[affected[k]]) {
+                relaxFromNeighbours(g, affected[k]);
+            }
+        }
+        propagate();
+        Metrics.record(Metrics.Operation.EXIT_FIELD_REPAIR, start, heap);
+    }
+
+    // Lower dist[x] to the best neighbour + step cost, queueing x if it improved
+    private void relaxFromNeighbours(CsrGraph g, int x) {
+        int[] penalty = graph.congestion().occupancyPenalties();
+        for (int i = g.offsets[x]; i < g.offsets[x + 1]; i++) {
+            int y = g.targets[i];
+            int weight = g.weights[i];
+            if (weight == Graph.CLOSED || dist[y] == UNREACHABLE) {
+                continue;
+            }
+            int candidate = dist[y] + weight + penalty[i];
+            if (candidate < dist[x]) {
+                dist[x] = candidate;
+                nearestExit[x] = nearestExit[y];
+                nextHop[x] = y;
+                heap.push(x, candidate);
+            }
+        }
+    }
+
+    // Reverse Dijkstra from the queued nodes: x can reach an exit through a settled y
+    private void propagate() {
+        CsrGraph g = graph.csr();
+        CongestionLayer congestion = graph.congestion();
+        int[] penalty = congestion.occupancyPenalties();
+        while (!heap.isEmpty()) {
+            int y = heap.poll();
+            for (int k = congestion.inStart(y); k < congestion.inStart(y + 1); k++) {
+                int i = congestion.inSlot(k); // Edge x -> y
+                int x = congestion.tail(i);
+                int weight = g.weights[i];
+                if (weight == Graph.CLOSED || isExit[x]) {
+                    continue;
+                }
+                int candidate = dist[y] + weight + penalty[i];
+                if (candidate < dist[x]) {
+                    dist[x] = candidate;
+                    nearestExit[x] = nearestExit[y];
+                    nextHop[x] = y;
+                    heap.push(x, candidate);
+                }
+            }
+        }
+    }
+
+    // Cheapest open x -> y edge with its occupancy penalty, or UNREACHABLE
+    private int stepCost(CsrGraph g, int x, int y) {
+        int[] penalty = graph.congestion().occupancyPenalties();
+        int best = UNREACHABLE;
+        for (int i = g.offsets[x]; i < g.offsets[x + 1]; i++) {
+            if (g.targets[i] == y && g.weights[i] != Graph.CLOSED) {
+                best = Math.min(best, g.weights[i] + penalty[i]);
+            }
+        }
+        return best;
+    }
+}
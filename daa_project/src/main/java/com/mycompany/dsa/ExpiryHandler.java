@@ -0,0 +1,10 @@
+package com.mycompany.dsa;
+
+/**
+ * Receives the bays whose time limit ran out, one batch per ParkingEngine.advanceTime call.
+ */
+@FunctionalInterface
+public interface ExpiryHandler {
+    // spots[0 .. count) are the expired bays; the array is reused by the next batch
+    void expired(int[] spots, int count);
+}
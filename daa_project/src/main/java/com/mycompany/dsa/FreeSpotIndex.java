@@ -0,0 +1,114 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+
+/**
+ * Free bays of each term zone, ordered by drive cost from each entrance.
+ *
+ * Every entrance and zone has a SkipBitSet over the EntranceRanking order of the zone's vehicle
+ * class: bit r is set while the bay ranked r is free and lies in the zone. A request takes the
+ * lowest set bit of its own zone, or of the other zone of its class when its own is full, the
+ * same policy as the concurrent StripedLotState. Its route comes from the entrance's stored
+ * shortest-path tree, so a gate decision runs no search at all. remove() on allocation and add()
+ * on deallocation flip one bit per entrance. A burst at one entrance takes its bays from one
+ * scan of the set bits.
+ */
+final class FreeSpotIndex {
+    private final EntranceRanking ranking;
+    private final SkipBitSet[][] free; // [entrance][zone]
+
+    FreeSpotIndex(Graph graph) {
+        this.ranking = new EntranceRanking(graph);
+        NodeStore store = graph.store();
+        int entrances = ranking.entranceCount();
+        free = new SkipBitSet[entrances][EntranceRanking.ZONES];
+        for (int e = 0; e < entrances; e++) {
+            for (int c = 0; c < EntranceRanking.CLASSES; c++) {
+                for (int term = 0; term < 2; term++) {
+                    free[e][EntranceRanking.zone(c, term == 1)] = new SkipBitSet(ranking.size(e, c));
+                }
+                for (int r = 0; r < ranking.size(e, c); r++) {
+                    int bay = ranking.bayAt(e, c, r);
+                    if (!store.isAllocated(bay)) {
+                        free[e][ranking.zoneOf(bay)].set(r);
+                    }
+                }
+            }
+        }
+    }
+
+    EntranceRanking ranking() {
+        return ranking;
+    }
+
+    // Nearest free bay of the term's zone to the entrance by drive cost, then of the other zone; -1 if none is free
+    int nearest(int entranceId, boolean isTwoWheeler, boolean isLongTerm) {
+        int e = ranking.entranceSlot(entranceId);
+        int c = EntranceRanking.vehicleClass(isTwoWheeler);
+        int zone = EntranceRanking.zone(c, isLongTerm);
+        int r = free[e][zone].first();
+        if (r == -1) {
+            r = free[e][zone ^ 1].first(); // The other term of the same class
+        }
+        return r == -1 ? -1 : ranking.bayAt(e, c, r);
+    }
+
+    // Up to count free bays in the order nearest(...) hands them out, in one scan of each zone; returns how many
+    int nearest(int entranceId, boolean isTwoWheeler, boolean isLongTerm, int[] bays, int count) {
+        int e = ranking.entranceSlot(entranceId);
+        int c = EntranceRanking.vehicleClass(isTwoWheeler);
+        int zone = EntranceRanking.zone(c, isLongTerm);
+        int found = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            SkipBitSet bits = free[e][zone ^ pass];
+            for (int r = bits.first(); r != -1 && found < count; r = bits.next(r + 1)) {
+                bays[found++] = ranking.bayAt(e, c, r);
+            }
+        }
+        return found;
+    }
+
+    // Drive cost from the entrance to the bay, or -1 if it cannot be reached
+    int cost(int entranceId, int bay) {
+        int e = ranking.entranceSlot(entranceId);
+        int r = ranking.rank(e, bay);
+        return r == -1 ? -1 : ranking.costAt(e, ranking.bayClass(bay), r);
+    }
+
+    // Route from the entrance to the bay, taken from the precomputed tree
+    List<Integer> path(int entranceId, int bay) {
+        return ranking.path(ranking.entranceSlot(entranceId), bay);
+    }
+
+    int path(int entranceId, int bay, int[] out) {
+        return ranking.path(ranking.entranceSlot(entranceId), bay, out);
+    }
+
+    // The bay was allocated
+    void remove(int bay) {
+        int zone = ranking.zoneOf(bay);
+        if (zone == -1) {
+            return;
+        }
+        for (int e = 0; e < free.length; e++) {
+            int r = ranking.rank(e, bay);
+            if (r != -1) {
+                free[e][zone].clear(r);
+            }
+        }
+    }
+
+    // The bay became free again
+    void add(int bay) {
+        int zone = ranking.zoneOf(bay);
+        if (zone == -1) {
+            return;
+        }
+        for (int e = 0; e < free.length; e++) {
+            int r = ranking.rank(e, bay);
+            if (r != -1) {
+                free[e][zone].set(r);
+            }
+        }
+    }
+}
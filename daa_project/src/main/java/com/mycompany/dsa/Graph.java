@@ -3,263 +3,686 @@ package com.mycompany.dsa;
 import java.util.*;
 
 class Graph {
+    static final int CLOSED = Integer.MAX_VALUE; // Weight of an edge that cannot be driven
+
     private final int V; // Number of nodes
-    private final Map<Integer, List<Edge>> adj; // Adjacency list
     private List<Node> nodes;
+    private final NodeStore store; // State behind the nodes, read directly by the searches
+
+    // Edge list as added by callers, compiled into the CSR adjacency on first search
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int[] edgeWeight = new int[16];
+    private int edgeCount;
+    private CsrGraph csr;
+    private CsrGraph reverseCsr; // In-edges, built on the first backward search
+    private ExitDistanceField exitField; // Built on first use, then repaired on every change
+    private JumpPointSearch jumpPoints; // Grid model for JPS, built on first use
+    private CongestionLayer congestion; // Dynamic weights of the contextual searches, built on first use
+    private int[] changedTails; // Scratch for handing congestion changes to the exit field
+    private final HierarchyHolder hierarchy = new HierarchyHolder();
+    private long topologyVersion; // Bumped by every change to the edges or their weights
+    private volatile RouteCache routes; // Built on first cachedPath()
 
     // Constructors
     Graph(int V) {
         this.V = V;
         this.nodes = null;
-        adj = new HashMap<>();
-        for (int i = 0; i < V; ++i) {
-            adj.put(i, new LinkedList<>());
-        }
+        this.store = null;
     }
 
     Graph(int V, List<Node> nodes) {
         this.V = V;
         this.nodes = nodes;
-        adj = new HashMap<>();
-        for (int i = 0; i < V; ++i) {
-            adj.put(i, new LinkedList<>());
-        }
+        this.store = NodeStore.of(nodes);
     }
 
     // Add edge
     void addEdge(int u, int v, int weight) {
-        adj.computeIfAbsent(u, k -> new LinkedList<>());
-        adj.computeIfAbsent(v, k -> new LinkedList<>());
+        addArc(u, v, weight);
+        addArc(v, u, weight); // Undirected graph
+    }
+
+    // One-way edge u -> v. Only Bellman-Ford is exact with negative weights, and the exit
+    // distance field assumes every edge has a twin in the other direction
+    void addArc(int u, int v, int weight) {
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeCount * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+        }
+        edgeFrom[edgeCount] = u;
+        edgeTo[edgeCount] = v;
+        edgeWeight[edgeCount] = weight;
+        edgeCount++;
+        csr = null; // Rebuilt on the next search
+        reverseCsr = null;
+        exitField = null;
+        jumpPoints = null;
+        congestion = null;
+        topologyVersion++;
+    }
+
+    // Adjacency in CSR form, built once after the last addEdge
+    CsrGraph csr() {
+        if (csr == null) {
+            csr = CsrGraph.build(V, edgeFrom, edgeTo, edgeWeight, edgeCount);
+        }
+        return csr;
+    }
 
-        adj.get(u).add(new Edge(u, v, weight));
-        adj.get(v).add(new Edge(v, u, weight)); // Undirected graph
+    // In-edges in CSR form: the slots of v list every u with an edge u -> v
+    CsrGraph reverseCsr() {
+        if (reverseCsr == null) {
+            reverseCsr = CsrGraph.build(V, edgeTo, edgeFrom, edgeWeight, edgeCount);
+        }
+        return reverseCsr;
+    }
+
+    int size() {
+        return V;
+    }
+
+    List<Node> nodes() {
+        return nodes;
+    }
+
+    // Node state in parallel arrays, or null when the graph has no node list
+    NodeStore store() {
+        return store;
+    }
+
+    // Current weight of u -> v, or -1 if there is no such edge
+    int edgeWeight(int u, int v) {
+        CsrGraph g = csr();
+        int slot = g.slot(u, v);
+        return slot == -1 ? -1 : g.weights[slot];
+    }
+
+    // Change the weight of every u <-> v edge in place; CLOSED takes the edge out of all searches
+    boolean setEdgeWeight(int u, int v, int weight) {
+        CsrGraph g = csr();
+        boolean found = updateSlots(g, u, v, weight);
+        found |= updateSlots(g, v, u, weight);
+        if (reverseCsr != null) {
+            updateSlots(reverseCsr, u, v, weight);
+            updateSlots(reverseCsr, v, u, weight);
+        }
+        if (found && exitField != null) {
+            exitField.edgeChanged(u, v);
+        }
+        if (found && jumpPoints != null) {
+            jumpPoints.grid().edgeChanged(u, v, weight);
+        }
+        if (found) {
+            topologyVersion++;
+            if (hierarchy.inUse()) {
+                hierarchy.requestRebuild(g::snapshot, topologyVersion);
+            }
+        }
+        return found;
+    }
+
+    private boolean updateSlots(CsrGraph g, int u, int v, int weight) {
+        boolean found = false;
+        for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+            if (g.targets[i] == v) {
+                g.weights[i] = weight;
+                edgeWeight[g.edgeIds[i]] = weight; // Keep the edge list in sync for a later rebuild
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    // Nearest-exit field over all isExit nodes, or null when the graph has no node list
+    ExitDistanceField exitField() {
+        if (exitField == null && nodes != null) {
+            exitField = new ExitDistanceField(this);
+        }
+        return exitField;
+    }
+
+    // Grid model of the lot, for the searches that use a heuristic
+    GridModel grid() {
+        return jumpPoints().grid();
+    }
+
+    // JPS over the grid model of the lot, built on first use
+    private JumpPointSearch jumpPoints() {
+        if (jumpPoints == null) {
+            jumpPoints = new JumpPointSearch(this, new GridModel(this));
+        }
+        return jumpPoints;
+    }
+
+    // Node on grid cell (row, col) of the lot, or -1
+    int nodeAt(int row, int col) {
+        return grid().nodeAtCell(row, col);
+    }
+
+    // Dynamic edge weights of the contextual searches, built from the current allocation state on first use
+    CongestionLayer congestion() {
+        if (congestion == null) {
+            congestion = new CongestionLayer(csr(), store);
+        }
+        return congestion;
+    }
+
+    // The layer as a contextual search reads it: from the first such search on, handed-out routes count too
+    CongestionLayer contextualWeights() {
+        CongestionLayer layer = congestion();
+        layer.countTraffic();
+        return layer;
+    }
+
+    // True once a contextual search ran, so the routes handed out are worth recording
+    boolean countsTraffic() {
+        return congestion != null && congestion.countsTraffic();
+    }
+
+    // Must be called after the allocation state (and so the congestion weights) of a node changed
+    void nodeWeightChanged(int node) {
+        if (congestion != null) {
+            congestion.occupancyChanged(node);
+            congestionChanged();
+        }
+    }
+
+    // Several nodes changed at once, e.g. a batch of allocations: a single exit field repair
+    void nodeWeightsChanged(int[] nodes, int count) {
+        if (congestion != null) {
+            for (int k = 0; k < count; k++) {
+                congestion.occupancyChanged(nodes[k]);
+            }
+            congestionChanged();
+        }
+    }
+
+    // Must be called after changing congestion() directly: repairs the exit field for every edge whose occupancy penalty changed
+    void congestionChanged() {
+        if (congestion == null) {
+            return;
+        }
+        if (changedTails == null || changedTails.length < csr().edgeCount()) {
+            changedTails = new int[csr().edgeCount()];
+        }
+        int count = congestion.drainChanged(changedTails);
+        if (exitField != null && count > 0) {
+            exitField.stepsChanged(changedTails, count);
+        }
+    }
+
+    long topologyVersion() {
+        return topologyVersion;
+    }
+
+    // Route found by the algorithm, from the route cache when it is still valid; the array is shared, do not modify it
+    int[] cachedPath(SearchAlgorithm algorithm, int src, int dest) {
+        return routeCache().path(algorithm, src, dest);
+    }
+
+    // Callers on several threads share one cache, so it is created under a lock
+    RouteCache routeCache() {
+        RouteCache cache = routes;
+        if (cache == null) {
+            synchronized (this) {
+                cache = routes;
+                if (cache == null) {
+                    cache = new RouteCache(this, RouteCache.DEFAULT_CAPACITY);
+                    routes = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    // Search buffers of the calling thread
+    private SearchContext context() {
+        return SearchContext.forThread(V).begin();
     }
 
     // Dijkstra's Algorithm
     List<Integer> dijkstraShortestPath(int src, int dest) {
-        int[] dist = new int[V];
-        int[] prev = new int[V];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(prev, -1);
-        dist[src] = 0;
+        SearchContext ctx = context();
+        dijkstra(ctx, src, dest);
+        return reconstructPath(dest, ctx);
+    }
+
+    // Allocation-free variant: writes the path into the buffer and returns its length (0 if unreachable)
+    int dijkstraShortestPath(int src, int dest, int[] path) {
+        SearchContext ctx = context();
+        dijkstra(ctx, src, dest);
+        return ctx.reached(dest) ? ctx.writePath(dest, path) : 0;
+    }
 
-        PriorityQueue<Integer> pq = new PriorityQueue<>(Comparator.comparingInt(node -> dist[node]));
-        pq.add(src);
+    // Settles nodes until dest is settled, or the whole reachable graph for dest == -1
+    private void dijkstra(SearchContext ctx, int src, int dest) {
+        long start = Metrics.start();
+        CsrGraph g = csr();
+        IndexedMinHeap pq = ctx.heap();
+        ctx.set(src, 0, -1);
+        pq.insert(src, 0);
 
         while (!pq.isEmpty()) {
             int u = pq.poll();
+            if (u == dest) {
+                break;
+            }
+            int distU = ctx.dist(u);
 
-            for (Edge e : adj.get(u)) {
-                int v = e.v;
-                int weight = e.weight;
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                int weight = g.weights[i];
+                if (weight == CLOSED) {
+                    continue;
+                }
 
-                if (dist[u] != Integer.MAX_VALUE && dist[u] + weight < dist[v]) {
-                    dist[v] = dist[u] + weight;
-                    prev[v] = u;
-                    pq.add(v);
+                if (distU + weight < ctx.dist(v)) {
+                    ctx.set(v, distU + weight, u);
+                    pq.push(v, distU + weight);
                 }
             }
         }
+        Metrics.record(Metrics.Operation.DIJKSTRA, start, pq);
+    }
 
-        return reconstructPath(src, dest, prev);
+    // Full Dijkstra tree from src: dist (SearchContext.UNREACHED if unreachable) and prev for every node
+    void shortestPathTree(int src, int[] dist, int[] prev) {
+        SearchContext ctx = context();
+        dijkstra(ctx, src, -1);
+        for (int v = 0; v < V; v++) {
+            dist[v] = ctx.dist(v);
+            prev[v] = ctx.prev(v);
+        }
     }
 
     // Bellman-Ford Algorithm
     List<Integer> bellmanFordShortestPath(int src, int dest) {
-        int[] dist = new int[V];
-        int[] prev = new int[V];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(prev, -1);
-        dist[src] = 0;
-
-        for (int i = 0; i < V - 1; i++) {
-            for (int u = 0; u < V; u++) {
-                for (Edge e : adj.get(u)) {
-                    int v = e.v;
-                    int weight = e.weight;
-
-                    if (dist[u] != Integer.MAX_VALUE && dist[u] + weight < dist[v]) {
-                        dist[v] = dist[u] + weight;
-                        prev[v] = u;
+        SearchContext ctx = context();
+        bellmanFord(ctx, src);
+        return reconstructPath(dest, ctx);
+    }
+
+    int bellmanFordShortestPath(int src, int dest, int[] path) {
+        SearchContext ctx = context();
+        bellmanFord(ctx, src);
+        return ctx.reached(dest) ? ctx.writePath(dest, path) : 0;
+    }
+
+    /**
+     * Queue-based Bellman-Ford (SPFA): only nodes whose distance dropped are scanned again, so the
+     * search ends after the first round that changes nothing instead of always running V - 1
+     * rounds. Negative weights are allowed. A path of V edges can only come from a negative cycle,
+     * which throws IllegalStateException.
+     */
+    private void bellmanFord(SearchContext ctx, int src) {
+        long start = Metrics.start();
+        long scanned = 0;
+        CsrGraph g = csr();
+        int[] queue = ctx.queue();
+        boolean[] queued = ctx.queued();
+        int[] hops = ctx.hops();
+        int head = 0;
+        int count = 1;
+        ctx.set(src, 0, -1);
+        hops[src] = 0;
+        queue[0] = src;
+        queued[src] = true;
+
+        while (count > 0) {
+            int u = queue[head];
+            head = head + 1 == V ? 0 : head + 1;
+            count--;
+            queued[u] = false;
+            scanned++;
+            int distU = ctx.dist(u);
+            for (int j = g.offsets[u]; j < g.offsets[u + 1]; j++) {
+                int v = g.targets[j];
+                int weight = g.weights[j];
+                if (weight == CLOSED || distU + weight >= ctx.dist(v)) {
+                    continue;
+                }
+
+                if (hops[u] + 1 >= V) {
+                    for (int k = 0; k < count; k++) {
+                        queued[queue[(head + k) % V]] = false;
                     }
+                    throw new IllegalStateException("Negative cycle reachable from node " + src);
+                }
+                ctx.set(v, distU + weight, u);
+                hops[v] = hops[u] + 1;
+                if (!queued[v]) {
+                    queue[(head + count) % V] = v;
+                    queued[v] = true;
+                    count++;
                 }
             }
         }
-
-        return reconstructPath(src, dest, prev);
+        Metrics.record(Metrics.Operation.BELLMAN_FORD, start, scanned);
     }
-    
- // Content-Based Search (CBS)
+
+    // Content-Based Search (CBS)
     List<Integer> contentBasedSearch(int src, int dest) {
-        int[] dist = new int[V];
-        int[] prev = new int[V];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(prev, -1);
-        dist[src] = 0;
+        SearchContext ctx = context();
+        contentBased(ctx, src);
+        return reconstructPath(dest, ctx);
+    }
 
-        PriorityQueue<Integer> pq = new PriorityQueue<>(Comparator.comparingInt(node -> dist[node]));
-        pq.add(src);
+    int contentBasedSearch(int src, int dest, int[] path) {
+        SearchContext ctx = context();
+        contentBased(ctx, src);
+        return ctx.reached(dest) ? ctx.writePath(dest, path) : 0;
+    }
+
+    private void contentBased(SearchContext ctx, int src) {
+        long start = Metrics.start();
+        CsrGraph g = csr();
+        int[] penalty = contextualWeights().penalties();
+        IndexedMinHeap pq = ctx.heap();
+        ctx.set(src, 0, -1);
+        pq.insert(src, 0);
 
         while (!pq.isEmpty()) {
             int u = pq.poll();
+            int distU = ctx.dist(u);
 
-            for (Edge e : adj.get(u)) {
-                int v = e.v;
-                int adjustedWeight = e.weight + getContextWeight(v); // Dynamic edge weight adjustment
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                if (g.weights[i] == CLOSED) {
+                    continue;
+                }
+                int adjustedWeight = g.weights[i] + penalty[i]; // Dynamic edge weight from the congestion layer
 
-                if (dist[u] != Integer.MAX_VALUE && dist[u] + adjustedWeight < dist[v]) {
-                    dist[v] = dist[u] + adjustedWeight;
-                    prev[v] = u;
-                    pq.add(v);
+                if (distU + adjustedWeight < ctx.dist(v)) {
+                    ctx.set(v, distU + adjustedWeight, u);
+                    pq.push(v, distU + adjustedWeight);
                 }
             }
         }
-
-        return reconstructPath(src, dest, prev);
+        Metrics.record(Metrics.Operation.CONTENT_BASED, start, pq);
     }
 
     // Jump Point Search (JPS)
     List<Integer> jumpPointSearch(int src, int dest) {
-        int[] dist = new int[V];
-        int[] prev = new int[V];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(prev, -1);
-        dist[src] = 0;
+        SearchContext ctx = context();
+        if (!jumpPoint(ctx, src, dest, false)) {
+            return Collections.emptyList(); // No path found
+        }
+        return jumpPointPath(ctx, dest);
+    }
 
-        PriorityQueue<Integer> openSet = new PriorityQueue<>(Comparator.comparingInt(node -> dist[node] + heuristic(node, dest)));
-        openSet.add(src);
+    int jumpPointSearch(int src, int dest, int[] path) {
+        SearchContext ctx = context();
+        return jumpPoint(ctx, src, dest, false) ? jumpPoints().writePath(ctx, dest, path) : 0;
+    }
 
-        while (!openSet.isEmpty()) {
-            int current = openSet.poll();
+    // Combined Search Algorithm (JPS + CBS)
+    List<Integer> combinedSearch(int src, int dest) {
+        SearchContext ctx = context();
+        if (!jumpPoint(ctx, src, dest, true)) {
+            return Collections.emptyList();
+        }
+        return jumpPointPath(ctx, dest);
+    }
 
-            if (current == dest) {
-                return reconstructPath(src, dest, prev);
-            }
+    int combinedSearch(int src, int dest, int[] path) {
+        SearchContext ctx = context();
+        return jumpPoint(ctx, src, dest, true) ? jumpPoints().writePath(ctx, dest, path) : 0;
+    }
 
-            for (Edge edge : adj.get(current)) {
-                int neighbor = edge.v;
+    // Shared by JPS and the combined search, which adds the congestion weight of every edge driven
+    private boolean jumpPoint(SearchContext ctx, int src, int dest, boolean contextual) {
+        long start = Metrics.start();
+        boolean found = jumpPoints().search(ctx, src, dest, contextual);
+        Metrics.record(contextual ? Metrics.Operation.COMBINED : Metrics.Operation.JUMP_POINT, start, ctx.heap());
+        return found;
+    }
 
-                if (isJumpPoint(current, neighbor)) {
-                    int jumpNode = jumpToNext(current, neighbor);
-                    if (jumpNode != -1) {
-                        neighbor = jumpNode;
-                    } else {
-                        continue;
-                    }
-                }
+    // Jump points only sit at the turns; the path in between is filled in from the grid
+    private List<Integer> jumpPointPath(SearchContext ctx, int dest) {
+        JumpPointSearch search = jumpPoints();
+        int[] path = new int[search.pathLength(ctx, dest)];
+        search.writePath(ctx, dest, path);
+        List<Integer> result = new ArrayList<>(path.length);
+        for (int node : path) {
+            result.add(node);
+        }
+        return result;
+    }
 
-                if (dist[current] + edge.weight < dist[neighbor]) {
-                    dist[neighbor] = dist[current] + edge.weight;
-                    prev[neighbor] = current;
-                    openSet.add(neighbor);
-                }
-            }
+    // Bidirectional A* on plain edge weights, as Dijkstra's cost model
+    List<Integer> bidirectionalSearch(int src, int dest) {
+        SearchContext forward = context();
+        SearchContext backward = SearchContext.backwardForThread(V).begin();
+        int meet = bidirectional(forward, backward, src, dest);
+        if (meet == -1) {
+            return Collections.emptyList();
+        }
+        int[] path = new int[BidirectionalAStar.pathLength(forward, backward, meet)];
+        BidirectionalAStar.writePath(forward, backward, meet, path);
+        List<Integer> result = new ArrayList<>(path.length);
+        for (int node : path) {
+            result.add(node);
         }
+        return result;
+    }
 
-        return Collections.emptyList(); // No path found
+    int bidirectionalSearch(int src, int dest, int[] path) {
+        SearchContext forward = context();
+        SearchContext backward = SearchContext.backwardForThread(V).begin();
+        int meet = bidirectional(forward, backward, src, dest);
+        return meet == -1 ? 0 : BidirectionalAStar.writePath(forward, backward, meet, path);
     }
 
-    // Combined Search Algorithm (JPS + CBS)
-    List<Integer> combinedSearch(int src, int dest) {
-        int[] dist = new int[V];
-        int[] prev = new int[V];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(prev, -1);
-        dist[src] = 0;
+    private int bidirectional(SearchContext forward, SearchContext backward, int src, int dest) {
+        long start = Metrics.start();
+        int meet = BidirectionalAStar.search(this, forward, backward, src, dest);
+        Metrics.record(Metrics.Operation.BIDIRECTIONAL, start, forward.heap(), backward.heap());
+        return meet;
+    }
 
-        PriorityQueue<Integer> openSet = new PriorityQueue<>(Comparator.comparingInt(node -> dist[node] + heuristic(node, dest)));
-        openSet.add(src);
+    // Build the contraction hierarchy of the current edges now; later changes rebuild it in the background
+    ContractionHierarchy buildHierarchy() {
+        ContractionHierarchy built = HierarchyHolder.build(csr());
+        hierarchy.install(built, topologyVersion);
+        return built;
+    }
 
-        while (!openSet.isEmpty()) {
-            int current = openSet.poll();
+    // Use a stored hierarchy, if it was built from exactly the current edges and weights
+    boolean installHierarchy(ContractionHierarchy stored) {
+        if (stored.size() != V || stored.fingerprint() != ContractionHierarchy.fingerprint(csr())) {
+            return false;
+        }
+        hierarchy.install(stored, topologyVersion);
+        return true;
+    }
 
-            if (current == dest) {
-                return reconstructPath(src, dest, prev);
-            }
+    // Hierarchy of the current edges, or null while it is being built in the background
+    ContractionHierarchy hierarchy() {
+        ContractionHierarchy current = hierarchy.get(topologyVersion);
+        if (current == null) {
+            hierarchy.requestRebuild(() -> csr().snapshot(), topologyVersion);
+        }
+        return current;
+    }
 
-            for (Edge edge : adj.get(current)) {
-                int neighbor = edge.v;
+    // Contraction-hierarchy query, as Dijkstra's cost model; bidirectional A* while the hierarchy is stale
+    List<Integer> hierarchySearch(int src, int dest) {
+        ContractionHierarchy current = hierarchy();
+        if (current == null) {
+            return bidirectionalSearch(src, dest);
+        }
+        SearchContext forward = context();
+        SearchContext backward = SearchContext.backwardForThread(V).begin();
+        int meet = hierarchySearch(current, forward, backward, src, dest);
+        if (meet == -1) {
+            return Collections.emptyList();
+        }
+        int[] path = new int[current.pathLength(forward, backward, meet)];
+        current.writePath(forward, backward, meet, path);
+        List<Integer> result = new ArrayList<>(path.length);
+        for (int node : path) {
+            result.add(node);
+        }
+        return result;
+    }
 
-                if (isJumpPoint(current, neighbor)) {
-                    int jumpNode = jumpToNext(current, neighbor);
-                    if (jumpNode != -1) {
-                        neighbor = jumpNode;
-                    } else {
-                        continue;
-                    }
-                }
+    int hierarchySearch(int src, int dest, int[] path) {
+        ContractionHierarchy current = hierarchy();
+        if (current == null) {
+            return bidirectionalSearch(src, dest, path);
+        }
+        SearchContext forward = context();
+        SearchContext backward = SearchContext.backwardForThread(V).begin();
+        int meet = hierarchySearch(current, forward, backward, src, dest);
+        return meet == -1 ? 0 : current.writePath(forward, backward, meet, path);
+    }
 
-                int adjustedWeight = edge.weight + getContextWeight(neighbor);
+    private int hierarchySearch(ContractionHierarchy current, SearchContext forward, SearchContext backward, int src, int dest) {
+        long start = Metrics.start();
+        int meet = current.search(forward, backward, src, dest);
+        Metrics.record(Metrics.Operation.CONTRACTION_HIERARCHY, start, forward.heap(), backward.heap());
+        return meet;
+    }
 
-                if (dist[current] + adjustedWeight < dist[neighbor]) {
-                    dist[neighbor] = dist[current] + adjustedWeight;
-                    prev[neighbor] = current;
-                    openSet.add(neighbor);
-                }
-            }
-        }
+    // Closest of all exits of the lot, read from the exit distance field
+    int[] findClosestExit(int src) {
+        int[] result = new int[2];
+        closestExit(src, result);
+        return result;
+    }
 
-        return Collections.emptyList();
+    // Allocation-free variant of findClosestExit(src): writes {exit, drive cost} to result
+    void closestExit(int src, int[] result) {
+        long start = Metrics.start();
+        ExitDistanceField field = exitField();
+        result[0] = field == null ? -1 : field.nearestExit(src);
+        result[1] = field == null ? Integer.MAX_VALUE : field.distance(src);
+        Metrics.record(Metrics.Operation.CLOSEST_EXIT, start);
     }
 
-    // Find Closest Exit
+    // Find Closest Exit: {exit, drive cost}, or {-1, Integer.MAX_VALUE} when no exit is reachable
     int[] findClosestExit(int src, int[] exits) {
-        int closestExit = -1;
-        int shortestDistance = Integer.MAX_VALUE;
-
-        for (int exit : exits) {
-            List<Integer> path = combinedSearch(src, exit);
-            if (!path.isEmpty()) {
-                int distance = path.size() - 1; // Path length is (nodes - 1)
-                if (distance < shortestDistance) {
-                    shortestDistance = distance;
-                    closestExit = exit;
+        int[] result = new int[2];
+        findClosestExit(src, exits, result);
+        return result;
+    }
+
+    // Allocation-free variant of findClosestExit
+    void findClosestExit(int src, int[] exits, int[] result) {
+        long start = Metrics.start();
+        ExitDistanceField field = exitField();
+        if (field != null && coversAllExits(field, exits)) {
+            result[0] = field.nearestExit(src);
+            result[1] = field.distance(src);
+        } else {
+            nearestTarget(src, exits, result);
+        }
+        Metrics.record(Metrics.Operation.CLOSEST_EXIT, start);
+    }
+
+    // True if exits lists every exit of the field exactly once
+    private boolean coversAllExits(ExitDistanceField field, int[] exits) {
+        if (exits.length != field.exitCount()) {
+            return false;
+        }
+        for (int i = 0; i < exits.length; i++) {
+            if (!field.isExit(exits[i])) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (exits[j] == exits[i]) {
+                    return false;
                 }
             }
         }
+        return true;
+    }
 
-        return new int[]{closestExit, shortestDistance};
+    // One occupancy-weighted Dijkstra pass that stops at the first target it settles.
+    // result[0] is that target (-1 if none is reachable) and result[1] its path cost.
+    void nearestTarget(int src, int[] targets, int[] result) {
+        SearchContext ctx = context();
+        for (int target : targets) {
+            ctx.markTarget(target);
+        }
+        int found = multiTarget(ctx, src, targets.length, true);
+        result[0] = found;
+        result[1] = found == -1 ? Integer.MAX_VALUE : ctx.dist(found);
     }
 
-    // Heuristic for JPS
-    private int heuristic(int node, int dest) {
-        Node n = nodes.get(node);
-        Node d = nodes.get(dest);
-        return Math.abs(n.x - d.x) + Math.abs(n.y - d.y); // Manhattan distance
+    // Path cost from src to every target in a single sweep (Integer.MAX_VALUE if unreachable)
+    int[] distancesTo(int src, int[] targets) {
+        int[] distances = new int[targets.length];
+        distancesTo(src, targets, distances);
+        return distances;
     }
 
-    private boolean isJumpPoint(int current, int neighbor) {
-        Node currNode = nodes.get(current);
-        Node neighNode = nodes.get(neighbor);
-        return Math.abs(currNode.x - neighNode.x) > 1 || Math.abs(currNode.y - neighNode.y) > 1;
+    void distancesTo(int src, int[] targets, int[] distances) {
+        SearchContext ctx = context();
+        int distinct = 0;
+        for (int target : targets) {
+            if (!ctx.isTarget(target)) {
+                ctx.markTarget(target);
+                distinct++;
+            }
+        }
+        multiTarget(ctx, src, distinct, false);
+        for (int i = 0; i < targets.length; i++) {
+            distances[i] = ctx.dist(targets[i]);
+        }
     }
 
-    private int jumpToNext(int current, int neighbor) {
-        Node currNode = nodes.get(current);
-        Node neighNode = nodes.get(neighbor);
+    // Dijkstra with the occupancy part of the CBS cost model until the first (stopAtFirst) or all marked targets are settled.
+    // Returns the last target settled, or -1.
+    private int multiTarget(SearchContext ctx, int src, int targetCount, boolean stopAtFirst) {
+        long start = Metrics.start();
+        int found = multiTargetSteps(ctx, src, targetCount, stopAtFirst);
+        Metrics.record(Metrics.Operation.NEAREST_TARGET, start, ctx.heap());
+        return found;
+    }
 
-        int stepX = Integer.compare(neighNode.x, currNode.x);
-        int stepY = Integer.compare(neighNode.y, currNode.y);
+    private int multiTargetSteps(SearchContext ctx, int src, int targetCount, boolean stopAtFirst) {
+        CsrGraph g = csr();
+        int[] penalty = congestion().occupancyPenalties(); // As the exit distance field
+        IndexedMinHeap pq = ctx.heap();
+        ctx.set(src, 0, -1);
+        pq.insert(src, 0);
+        int settled = 0;
+        int last = -1;
 
-        int nextX = currNode.x + stepX;
-        int nextY = currNode.y + stepY;
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            if (ctx.isTarget(u)) {
+                last = u;
+                if (stopAtFirst || ++settled == targetCount) {
+                    return last;
+                }
+            }
 
-        for (Node node : nodes) {
-            if (node.x == nextX && node.y == nextY && !node.isAllocated) {
-                return node.id;
+            int distU = ctx.dist(u);
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                if (g.weights[i] == CLOSED) {
+                    continue;
+                }
+                int adjustedWeight = g.weights[i] + penalty[i];
+
+                if (distU + adjustedWeight < ctx.dist(v)) {
+                    ctx.set(v, distU + adjustedWeight, u);
+                    pq.push(v, distU + adjustedWeight);
+                }
             }
         }
 
-        return -1; // No valid jump point
-    }
-
-    private int getContextWeight(int node) {
-        return nodes.get(node).isAllocated ? 10 : 0;
+        return last;
     }
 
-    private List<Integer> reconstructPath(int src, int dest, int[] prev) {
+    private List<Integer> reconstructPath(int dest, SearchContext ctx) {
         List<Integer> path = new ArrayList<>();
-        for (int at = dest; at != -1; at = prev[at]) {
+        for (int at = dest; at != -1; at = ctx.prev(at)) {
             path.add(at);
         }
         Collections.reverse(path);
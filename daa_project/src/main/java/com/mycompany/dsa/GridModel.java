@@ -0,0 +1,311 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dense grid view of a lot whose nodes sit on a regular lattice, used by Jump Point Search.
+ *
+ * Cells come from Node.row/col; pixel positions are only for drawing. Layouts whose nodes carry
+ * no cells get the lattice of their pixel positions instead, with the most common length of an
+ * axis-aligned edge as its spacing. Every cell is one slot of a row-major index, so both the node
+ * at a cell and the cell of a node are one array read. A node is regular when its edges are exactly
+ * one edge of the common step weight to every occupied neighbouring cell. Everything else (nodes
+ * off the lattice, entrance and exit links that skip cells, closed or re-weighted edges) is
+ * irregular and searched edge by edge, as a portal between stretches of open grid.
+ */
+final class GridModel {
+    static final int NONE = -1;
+    private static final int MAX_CELLS_PER_NODE = 8; // Sparser lattices are not worth a dense index
+
+    final int rows;
+    final int cols;
+    final int stepWeight; // Weight of one move between regular cells
+    private final int firstRow; // Logical cell of index row 0 and column 0
+    private final int firstCol;
+    private final int[] nodeAt; // Cell -> node, or NONE
+    private final int[] cellOf; // Node -> cell, or NONE off the lattice
+    private final boolean[] regular;
+    private final CsrGraph csr;
+
+    // The heuristic charges heuristicNum / heuristicDen per cell, the cheapest rate of any edge
+    private long heuristicNum;
+    private long heuristicDen = 1;
+
+    GridModel(Graph graph) {
+        this.csr = graph.csr();
+        int V = graph.size();
+        this.cellOf = new int[V];
+        this.regular = new boolean[V];
+        Arrays.fill(cellOf, NONE);
+
+        // Logical cells of the nodes: their own row/col, or inferred from the pixels for older layouts
+        NodeStore store = graph.store();
+        int[] nodeRow = new int[V];
+        int[] nodeCol = new int[V];
+        Arrays.fill(nodeRow, Node.NO_CELL);
+        if (store != null && !cellsFromNodes(store, nodeRow, nodeCol)) {
+            cellsFromPixels(store, nodeRow, nodeCol);
+        }
+
+        int minCol = Integer.MAX_VALUE, minRow = Integer.MAX_VALUE;
+        int maxCol = Integer.MIN_VALUE, maxRow = Integer.MIN_VALUE;
+        for (int v = 0; v < V; v++) {
+            if (nodeRow[v] != Node.NO_CELL) {
+                minCol = Math.min(minCol, nodeCol[v]);
+                maxCol = Math.max(maxCol, nodeCol[v]);
+                minRow = Math.min(minRow, nodeRow[v]);
+                maxRow = Math.max(maxRow, nodeRow[v]);
+            }
+        }
+
+        long cells = minRow == Integer.MAX_VALUE ? 0 : (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (cells == 0 || cells > (long) MAX_CELLS_PER_NODE * V) {
+            this.rows = 0;
+            this.cols = 0;
+            this.firstRow = 0;
+            this.firstCol = 0;
+            this.nodeAt = new int[0];
+        } else {
+            this.rows = maxRow - minRow + 1;
+            this.cols = maxCol - minCol + 1;
+            this.firstRow = minRow;
+            this.firstCol = minCol;
+            this.nodeAt = new int[rows * cols];
+            Arrays.fill(nodeAt, NONE);
+            for (int v = 0; v < V; v++) {
+                if (nodeRow[v] != Node.NO_CELL) {
+                    int cell = (nodeRow[v] - minRow) * cols + nodeCol[v] - minCol;
+                    if (nodeAt[cell] == NONE) { // A second node on the same cell stays off the lattice
+                        nodeAt[cell] = v;
+                        cellOf[v] = cell;
+                    }
+                }
+            }
+        }
+
+        this.stepWeight = commonStepWeight();
+        for (int v = 0; v < V; v++) {
+            regular[v] = classify(v);
+        }
+        initHeuristic();
+    }
+
+    int cellOf(int node) {
+        return cellOf[node];
+    }
+
+    // Node at the logical cell (Node.row, Node.col), or NONE
+    int nodeAtCell(int row, int col) {
+        return nodeAt(row - firstRow, col - firstCol);
+    }
+
+    // Node at index (row, col), or NONE outside the lattice or on an empty cell
+    int nodeAt(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return NONE;
+        }
+        return nodeAt[row * cols + col];
+    }
+
+    int row(int cell) {
+        return cell / cols;
+    }
+
+    int col(int cell) {
+        return cell % cols;
+    }
+
+    boolean isRegular(int node) {
+        return regular[node];
+    }
+
+    // Lower bound on the cost from u to v, 0 when either is off the lattice
+    int heuristic(int u, int v) {
+        int a = cellOf[u];
+        int b = cellOf[v];
+        if (a == NONE || b == NONE || heuristicNum == 0) {
+            return 0;
+        }
+        long cells = Math.abs(a / cols - b / cols) + Math.abs(a % cols - b % cols);
+        return (int) (cells * heuristicNum / heuristicDen);
+    }
+
+    // Must be called after the weight of u <-> v changed
+    void edgeChanged(int u, int v, int weight) {
+        reclassify(u);
+        reclassify(v);
+        if (weight != Graph.CLOSED) {
+            lowerHeuristic(u, v, weight); // Never raised again: the bound stays admissible
+        }
+    }
+
+    private void reclassify(int u) {
+        regular[u] = classify(u);
+    }
+
+    // Exactly one step-weight edge to every occupied neighbouring cell and no other edge
+    private boolean classify(int u) {
+        int cell = cellOf[u];
+        if (cell == NONE) {
+            return false;
+        }
+        int row = cell / cols;
+        int col = cell % cols;
+        int expected = 0;
+        expected |= nodeAt(row - 1, col) != NONE ? 1 : 0;
+        expected |= nodeAt(row + 1, col) != NONE ? 2 : 0;
+        expected |= nodeAt(row, col - 1) != NONE ? 4 : 0;
+        expected |= nodeAt(row, col + 1) != NONE ? 8 : 0;
+
+        int seen = 0;
+        for (int i = csr.offsets[u]; i < csr.offsets[u + 1]; i++) {
+            int direction = direction(cell, cellOf[csr.targets[i]]);
+            if (csr.weights[i] != stepWeight || direction == 0 || (seen & direction) != 0) {
+                return false;
+            }
+            seen |= direction;
+        }
+        return seen == expected;
+    }
+
+    // Bit of the neighbouring cell b as seen from a (up, down, left, right), or 0 if not adjacent
+    private int direction(int a, int b) {
+        if (b == NONE) {
+            return 0;
+        }
+        int dRow = b / cols - a / cols;
+        int dCol = b % cols - a % cols;
+        if (dCol == 0) {
+            return dRow == -1 ? 1 : dRow == 1 ? 2 : 0;
+        }
+        if (dRow == 0) {
+            return dCol == -1 ? 4 : dCol == 1 ? 8 : 0;
+        }
+        return 0;
+    }
+
+    // Most common weight of an open edge between neighbouring cells
+    private int commonStepWeight() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int u = 0; u < csr.V; u++) {
+            int cell = cellOf[u];
+            for (int i = csr.offsets[u]; cell != NONE && i < csr.offsets[u + 1]; i++) {
+                if (csr.weights[i] != Graph.CLOSED && direction(cell, cellOf[csr.targets[i]]) != 0) {
+                    counts.merge(csr.weights[i], 1, Integer::sum);
+                }
+            }
+        }
+        return mostCommon(counts, 1);
+    }
+
+    private void initHeuristic() {
+        heuristicNum = Long.MAX_VALUE;
+        for (int u = 0; u < csr.V && heuristicNum != 0; u++) {
+            for (int i = csr.offsets[u]; i < csr.offsets[u + 1]; i++) {
+                if (csr.weights[i] != Graph.CLOSED) {
+                    lowerHeuristic(u, csr.targets[i], csr.weights[i]);
+                }
+            }
+        }
+        if (heuristicNum == Long.MAX_VALUE) { // No open edge at all
+            heuristicNum = 0;
+        }
+    }
+
+    // Make sure one edge u -> v of the given weight never costs less than the heuristic claims
+    private void lowerHeuristic(int u, int v, int weight) {
+        int a = cellOf[u];
+        int b = cellOf[v];
+        if (a == NONE || b == NONE) {
+            heuristicNum = 0; // Off-lattice nodes can shortcut any distance
+            heuristicDen = 1;
+            return;
+        }
+        long cells = Math.abs(a / cols - b / cols) + Math.abs(a % cols - b % cols);
+        if (cells > 0 && (heuristicNum == Long.MAX_VALUE || weight * heuristicDen < heuristicNum * cells)) {
+            heuristicNum = weight;
+            heuristicDen = cells;
+        }
+    }
+
+    // Copy Node.row/col; false if no node has a cell
+    private static boolean cellsFromNodes(NodeStore store, int[] nodeRow, int[] nodeCol) {
+        boolean any = false;
+        for (int v = 0; v < nodeRow.length; v++) {
+            if (store.row(v) != Node.NO_CELL) {
+                nodeRow[v] = store.row(v);
+                nodeCol[v] = store.col(v);
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    // Lattice of the pixel positions: its spacing is the most common length of an axis-aligned edge
+    private void cellsFromPixels(NodeStore store, int[] nodeRow, int[] nodeCol) {
+        int spacing = spacing(store);
+        if (spacing == 0) {
+            return;
+        }
+        int reference = referenceNode(store, spacing);
+        int originX = Math.floorMod(store.x(reference), spacing);
+        int originY = Math.floorMod(store.y(reference), spacing);
+        for (int v = 0; v < nodeRow.length; v++) {
+            int x = store.x(v) - originX;
+            int y = store.y(v) - originY;
+            if (x % spacing == 0 && y % spacing == 0) {
+                nodeRow[v] = Math.floorDiv(y, spacing);
+                nodeCol[v] = Math.floorDiv(x, spacing);
+            }
+        }
+    }
+
+    // Most common length of an axis-aligned edge, or 0 if there is none
+    private int spacing(NodeStore store) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int u = 0; u < csr.V; u++) {
+            for (int i = csr.offsets[u]; i < csr.offsets[u + 1]; i++) {
+                int length = axisLength(store, u, csr.targets[i]);
+                if (length > 0) {
+                    counts.merge(length, 1, Integer::sum);
+                }
+            }
+        }
+        return mostCommon(counts, 0);
+    }
+
+    // Endpoint of an axis-aligned edge of the lattice spacing, which fixes the lattice origin
+    private int referenceNode(NodeStore store, int spacing) {
+        for (int u = 0; u < csr.V; u++) {
+            for (int i = csr.offsets[u]; i < csr.offsets[u + 1]; i++) {
+                if (axisLength(store, u, csr.targets[i]) == spacing) {
+                    return u;
+                }
+            }
+        }
+        throw new IllegalStateException("No edge of length " + spacing);
+    }
+
+    // Pixel length of u - v if it runs along an axis, otherwise 0
+    private static int axisLength(NodeStore store, int u, int v) {
+        int dx = Math.abs(store.x(u) - store.x(v));
+        int dy = Math.abs(store.y(u) - store.y(v));
+        return dx == 0 || dy == 0 ? dx + dy : 0;
+    }
+
+    // Key with the highest count, the smallest one on ties
+    private static int mostCommon(Map<Integer, Integer> counts, int fallback) {
+        int best = fallback;
+        int bestCount = 0;
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            int count = entry.getValue();
+            if (count > bestCount || (count == bestCount && entry.getKey() < best)) {
+                best = entry.getKey();
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
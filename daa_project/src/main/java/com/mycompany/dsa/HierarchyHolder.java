@@ -0,0 +1,74 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The contraction hierarchy of one Graph, tagged with the topology version it was built for.
+ *
+ * A hierarchy is only handed out while its version is the graph's current one. When a query finds
+ * it stale, the graph passes a snapshot of its adjacency to requestRebuild(), which builds the new
+ * hierarchy on a shared daemon thread and swaps it in atomically; until then the graph answers
+ * queries without it. Requests for versions that are superseded before their turn are skipped.
+ */
+final class HierarchyHolder {
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "hierarchy-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Installed {
+        final ContractionHierarchy hierarchy;
+        final long version;
+
+        Installed(ContractionHierarchy hierarchy, long version) {
+            this.hierarchy = hierarchy;
+            this.version = version;
+        }
+    }
+
+    private final AtomicReference<Installed> current = new AtomicReference<>();
+    private final AtomicLong requested = new AtomicLong(-1); // Latest version a rebuild was requested for
+
+    // Hierarchy built for this version, or null if there is none yet
+    ContractionHierarchy get(long version) {
+        Installed installed = current.get();
+        return installed != null && installed.version == version ? installed.hierarchy : null;
+    }
+
+    // Make hierarchy current for version, unless a newer one is already installed
+    void install(ContractionHierarchy hierarchy, long version) {
+        Installed next = new Installed(hierarchy, version);
+        current.accumulateAndGet(next, (old, candidate) -> old != null && old.version > candidate.version ? old : candidate);
+    }
+
+    // A hierarchy was installed or requested, so changes to the graph should rebuild it
+    boolean inUse() {
+        return current.get() != null || requested.get() >= 0;
+    }
+
+    // Build a hierarchy for version in the background, from a snapshot taken on the calling thread
+    void requestRebuild(Supplier<CsrGraph> snapshot, long version) {
+        long seen = requested.get();
+        if (seen >= version || !requested.compareAndSet(seen, version)) {
+            return; // Already requested, or a newer request won
+        }
+        CsrGraph graph = snapshot.get();
+        BUILDER.execute(() -> {
+            if (requested.get() == version) {
+                install(build(graph), version);
+            }
+        });
+    }
+
+    static ContractionHierarchy build(CsrGraph graph) {
+        long start = Metrics.start();
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Metrics.record(Metrics.Operation.HIERARCHY_BUILD, start);
+        return hierarchy;
+    }
+}
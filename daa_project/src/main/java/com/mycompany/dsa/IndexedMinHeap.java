@@ -0,0 +1,190 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+
+/**
+ * 4-ary min-heap over the ids 0 .. capacity - 1 with int keys and a real decrease-key.
+ *
+ * Every id is in the heap at most once, and its key is stored in the heap itself, so changing
+ * dist[] outside the heap cannot break the heap order.
+ */
+final class IndexedMinHeap {
+    private static final int ARITY = 4;
+
+    private final int[] heap; // Ids in heap order
+    private final int[] keys; // Key of every id that is in the heap
+    private final int[] pos; // Index of every id in heap, or -1 when absent
+    private int size;
+
+    // Operations since the last clear(), counted only with Metrics.ENABLED
+    private int pushes;
+    private int decreaseKeys;
+    private int polls;
+
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    int capacity() {
+        return heap.length;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int id) {
+        return pos[id] != -1;
+    }
+
+    int key(int id) {
+        return keys[id];
+    }
+
+    int peek() {
+        return heap[0];
+    }
+
+    int peekKey() {
+        return keys[heap[0]];
+    }
+
+    void insert(int id, int key) {
+        if (Metrics.ENABLED) {
+            pushes++;
+        }
+        keys[id] = key;
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    void decreaseKey(int id, int key) {
+        if (Metrics.ENABLED) {
+            decreaseKeys++;
+        }
+        keys[id] = key;
+        siftUp(pos[id]);
+    }
+
+    // Insert id, or lower its key if it is already queued with a larger one
+    void push(int id, int key) {
+        if (pos[id] == -1) {
+            insert(id, key);
+        } else if (key < keys[id]) {
+            decreaseKey(id, key);
+        }
+    }
+
+    int poll() {
+        if (Metrics.ENABLED) {
+            polls++;
+        }
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    boolean remove(int id) {
+        int i = pos[id];
+        if (i == -1) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    // Empty the heap in O(size) rather than O(capacity)
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+        pushes = 0;
+        decreaseKeys = 0;
+        polls = 0;
+    }
+
+    int pushes() {
+        return pushes;
+    }
+
+    int decreaseKeys() {
+        return decreaseKeys;
+    }
+
+    int polls() {
+        return polls;
+    }
+
+    private void removeAt(int i) {
+        int removed = heap[i];
+        pos[removed] = -1;
+        size--;
+        if (i == size) {
+            return;
+        }
+        int last = heap[size];
+        heap[i] = last;
+        pos[last] = i;
+        if (i > 0 && keys[last] < keys[heap[(i - 1) / ARITY]]) {
+            siftUp(i);
+        } else {
+            siftDown(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        int key = keys[id];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[i] = parentId;
+            pos[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        int key = keys[id];
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            int bestKey = keys[heap[first]];
+            int end = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < end; c++) {
+                int childKey = keys[heap[c]];
+                if (childKey < bestKey) {
+                    best = c;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int bestId = heap[best];
+            heap[i] = bestId;
+            pos[bestId] = i;
+            i = best;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
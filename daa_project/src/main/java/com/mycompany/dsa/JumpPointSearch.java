@@ -0,0 +1,202 @@
+package com.mycompany.dsa;
+
+/**
+ * Jump Point Search over the 4-connected GridModel of a lot, with irregular nodes as portals.
+ *
+ * Regular cells are an open uniform-cost grid, so the search jumps along rows and columns and
+ * only stops where a path could turn for the better (the 4-connected pruning rules of Harabor
+ * and Grastien): at the goal, at cells with a forced neighbour, on a column at the cells from
+ * which a row jump finds something, and next to an irregular node. Irregular nodes are relaxed
+ * edge by edge, so entrance and exit links, closures and odd weights are searched exactly and
+ * the result costs the same as Dijkstra's. In contextual mode (the combined search) nodes entered
+ * over an edge with a CongestionLayer penalty count as irregular too, so every edge with a penalty
+ * is relaxed one by one at its full cost.
+ *
+ * The search context keeps only jump points in prev; writePath fills in the cells between them.
+ */
+final class JumpPointSearch {
+    private static final int NONE = GridModel.NONE;
+
+    private final Graph graph;
+    private final GridModel grid;
+    private final CsrGraph csr;
+    private final CongestionLayer congestion;
+
+    JumpPointSearch(Graph graph, GridModel grid) {
+        this.graph = graph;
+        this.grid = grid;
+        this.csr = graph.csr();
+        this.congestion = graph.contextualWeights();
+    }
+
+    GridModel grid() {
+        return grid;
+    }
+
+    // A* over jump points; true if dest was reached, with its cost in ctx.dist(dest)
+    boolean search(SearchContext ctx, int src, int dest, boolean contextual) {
+        IndexedMinHeap openSet = ctx.heap();
+        ctx.set(src, 0, -1);
+        openSet.insert(src, grid.heuristic(src, dest));
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == dest) {
+                return true;
+            }
+            int distCurrent = ctx.dist(current);
+
+            if (passable(current, contextual)) {
+                int cell = grid.cellOf(current);
+                int row = grid.row(cell);
+                int col = grid.col(cell);
+                int parent = ctx.prev(current);
+                int dRow = 0;
+                int dCol = 0;
+                if (parent != -1 && passable(parent, contextual)) { // Reached by a jump along a row or column
+                    int parentCell = grid.cellOf(parent);
+                    dRow = Integer.signum(row - grid.row(parentCell));
+                    dCol = Integer.signum(col - grid.col(parentCell));
+                }
+
+                if (dRow == 0 && dCol == 0) {
+                    jumpAndRelax(ctx, current, row, col, -1, 0, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, 1, 0, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, 0, -1, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, 0, 1, dest, contextual);
+                } else if (dCol != 0) { // Natural and forced neighbours of a row move
+                    jumpAndRelax(ctx, current, row, col, 0, dCol, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, -1, 0, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, 1, 0, dest, contextual);
+                } else {
+                    jumpAndRelax(ctx, current, row, col, dRow, 0, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, 0, -1, dest, contextual);
+                    jumpAndRelax(ctx, current, row, col, 0, 1, dest, contextual);
+                }
+            }
+
+            // Edges into irregular nodes, and every edge of an irregular node, are relaxed one by one
+            boolean portal = !passable(current, contextual);
+            for (int i = csr.offsets[current]; i < csr.offsets[current + 1]; i++) {
+                int neighbor = csr.targets[i];
+                int weight = csr.weights[i];
+                if (weight == Graph.CLOSED || (!portal && passable(neighbor, contextual))) {
+                    continue;
+                }
+                int adjustedWeight = contextual ? weight + congestion.penalty(i) : weight;
+                relax(ctx, neighbor, distCurrent + adjustedWeight, current, dest);
+            }
+        }
+        return false;
+    }
+
+    private void jumpAndRelax(SearchContext ctx, int from, int row, int col, int dRow, int dCol,
+                              int dest, boolean contextual) {
+        int target = jump(row, col, dRow, dCol, dest, contextual);
+        if (target != NONE) {
+            int cell = grid.cellOf(target);
+            int steps = Math.abs(grid.row(cell) - row) + Math.abs(grid.col(cell) - col);
+            relax(ctx, target, ctx.dist(from) + steps * grid.stepWeight, from, dest);
+        }
+    }
+
+    private void relax(SearchContext ctx, int node, int distance, int from, int dest) {
+        if (distance < ctx.dist(node)) {
+            ctx.set(node, distance, from);
+            ctx.heap().push(node, distance + grid.heuristic(node, dest));
+        }
+    }
+
+    // First jump point from (row, col) in the direction (dRow, dCol), or NONE
+    private int jump(int row, int col, int dRow, int dCol, int dest, boolean contextual) {
+        while (true) {
+            row += dRow;
+            col += dCol;
+            int node = grid.nodeAt(row, col);
+            if (node == NONE || !passable(node, contextual)) {
+                return NONE; // The cell before is next to it and relaxes the edge itself
+            }
+            if (node == dest || nextToPortal(row, col, contextual)) {
+                return node;
+            }
+            if (dCol != 0) {
+                if ((walkable(row - 1, col, contextual) && !walkable(row - 1, col - dCol, contextual))
+                        || (walkable(row + 1, col, contextual) && !walkable(row + 1, col - dCol, contextual))) {
+                    return node;
+                }
+            } else {
+                if ((walkable(row, col - 1, contextual) && !walkable(row - dRow, col - 1, contextual))
+                        || (walkable(row, col + 1, contextual) && !walkable(row - dRow, col + 1, contextual))) {
+                    return node;
+                }
+                // A column move must stop wherever a row move from it leads somewhere
+                if (jump(row, col, 0, -1, dest, contextual) != NONE || jump(row, col, 0, 1, dest, contextual) != NONE) {
+                    return node;
+                }
+            }
+        }
+    }
+
+    private boolean passable(int node, boolean contextual) {
+        return grid.isRegular(node) && (!contextual || congestion.isFree(node));
+    }
+
+    private boolean walkable(int row, int col, boolean contextual) {
+        int node = grid.nodeAt(row, col);
+        return node != NONE && passable(node, contextual);
+    }
+
+    // An occupied neighbouring cell that is not passable: its edge must be relaxed from here
+    private boolean nextToPortal(int row, int col, boolean contextual) {
+        return blocksAt(row - 1, col, contextual) || blocksAt(row + 1, col, contextual)
+                || blocksAt(row, col - 1, contextual) || blocksAt(row, col + 1, contextual);
+    }
+
+    private boolean blocksAt(int row, int col, boolean contextual) {
+        int node = grid.nodeAt(row, col);
+        return node != NONE && !passable(node, contextual);
+    }
+
+    // Length of the full path src .. dest after a successful search, cells between jump points included
+    int pathLength(SearchContext ctx, int dest) {
+        int length = 1;
+        for (int at = dest, from = ctx.prev(at); from != -1; at = from, from = ctx.prev(at)) {
+            length += segmentSteps(from, at);
+        }
+        return length;
+    }
+
+    // Write the full path src .. dest into out and return its length
+    int writePath(SearchContext ctx, int dest, int[] out) {
+        int length = pathLength(ctx, dest);
+        if (length > out.length) {
+            throw new IllegalArgumentException("Path of " + length + " nodes does not fit a buffer of " + out.length);
+        }
+        int i = length;
+        out[--i] = dest;
+        for (int at = dest, from = ctx.prev(at); from != -1; at = from, from = ctx.prev(at)) {
+            int steps = segmentSteps(from, at);
+            if (steps > 1) {
+                int fromCell = grid.cellOf(from);
+                int atCell = grid.cellOf(at);
+                int dRow = Integer.signum(grid.row(fromCell) - grid.row(atCell));
+                int dCol = Integer.signum(grid.col(fromCell) - grid.col(atCell));
+                for (int k = 1; k < steps; k++) {
+                    out[--i] = grid.nodeAt(grid.row(atCell) + k * dRow, grid.col(atCell) + k * dCol);
+                }
+            }
+            out[--i] = from;
+        }
+        return length;
+    }
+
+    // Moves from -> at: a regular node has edges only to neighbouring cells, so anything longer is a jump
+    private int segmentSteps(int from, int at) {
+        int fromCell = grid.cellOf(from);
+        int atCell = grid.cellOf(at);
+        if (!grid.isRegular(from) || atCell == NONE) {
+            return 1;
+        }
+        return Math.abs(grid.row(atCell) - grid.row(fromCell)) + Math.abs(grid.col(atCell) - grid.col(fromCell));
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Values below 64 ns get a bucket each; above that, every power of two is split into 32
+ * buckets, so any recorded value is known to within about 3%. Recording is one atomic
+ * increment plus the count, sum and max updates, and is safe from any thread. Percentiles are
+ * read from the live counts, so a snapshot taken while threads record is approximate.
+ */
+final class LatencyRecorder {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int EXACT = 2 * SUB; // Values below this have their own bucket
+    private static final int BUCKETS = (63 - SUB_BITS) * SUB + 2 * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.getAndIncrement(bucket(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return shift * SUB + (int) (value >>> shift);
+    }
+
+    // Largest value that falls into the bucket
+    static long highestInBucket(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int shift = bucket / SUB - 1;
+        long sub = bucket % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    // Smallest bucket bound with at least the fraction p of the values at or below it, capped at max()
+    long percentile(double p) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), max());
+            }
+        }
+        return max();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mycompany.dsa;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Long-lived graph of the parking lot, shared by every allocate and deallocate path.
+ *
+ * The Graph is built once from the edge list. Allocation-state changes, edge closures and
+ * weight changes are applied incrementally, so handling one vehicle does not depend on the
+ * number of edges in the lot. Every change bumps epoch().
+ *
+ * Routes handed out on allocation are fed into the graph's CongestionLayer, so the contextual
+ * searches steer around aisles in use.
+ */
+final class LotGraph {
+    private final List<Node> nodes;
+    private final List<Edge> edges;
+    private final Graph graph;
+    private FreeSpotIndex freeSpots; // Rebuilt when edge weights change, since its rankings depend on them
+    private final Map<Long, Integer> closedEdges = new HashMap<>(); // Weight to restore on reopen
+    private long epoch;
+    private final int[] route; // Scratch for the routes fed into the congestion layer
+
+    LotGraph(List<Node> nodes, List<Edge> edges) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.graph = new Graph(nodes.size(), nodes);
+        for (Edge edge : edges) {
+            graph.addEdge(edge.u, edge.v, edge.weight);
+        }
+        this.freeSpots = new FreeSpotIndex(graph);
+        this.route = new int[nodes.size()];
+    }
+
+    Graph graph() {
+        return graph;
+    }
+
+    List<Node> nodes() {
+        return nodes;
+    }
+
+    List<Edge> edges() {
+        return edges;
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    // Nearest free bay of the vehicle class to the entrance by drive cost, own term zone first, or -1 if none is free
+    int nearestFreeBay(int entrance, boolean isTwoWheeler, boolean isLongTerm) {
+        return freeSpots.nearest(entrance, isTwoWheeler, isLongTerm);
+    }
+
+    // Up to count free bays in the order nearestFreeBay hands them out; returns how many were found
+    int nearestFreeBays(int entrance, boolean isTwoWheeler, boolean isLongTerm, int[] bays, int count) {
+        return freeSpots.nearest(entrance, isTwoWheeler, isLongTerm, bays, count);
+    }
+
+    // Shortest drive cost from the entrance to the bay, or -1 if it cannot be reached
+    int entranceCost(int entrance, int bay) {
+        return freeSpots.cost(entrance, bay);
+    }
+
+    // Route from the entrance to the bay, read from the entrance's precomputed shortest-path tree
+    List<Integer> entrancePath(int entrance, int bay) {
+        return freeSpots.path(entrance, bay);
+    }
+
+    // Allocation-free variant of entrancePath: writes the route to out and returns its length
+    int entrancePath(int entrance, int bay, int[] out) {
+        return freeSpots.path(entrance, bay, out);
+    }
+
+    // Allocation state (read by the contextual searches through the congestion layer, and by the exit field).
+    // The vehicle drives from the entrance to the bay until arrived(bay)
+    void allocate(int node, boolean isLongTerm, int entrance) {
+        Node spot = nodes.get(node);
+        spot.setAllocated(true);
+        spot.setLongTerm(isLongTerm);
+        freeSpots.remove(node);
+        if (graph.countsTraffic()) {
+            graph.congestion().addRoute(route, freeSpots.path(entrance, node, route), node);
+        }
+        graph.nodeWeightChanged(node);
+        epoch++;
+    }
+
+    // Allocate count bays, the vehicle for bays[k] coming from entrances[k], with one exit field repair for all of them
+    void allocate(int[] bays, boolean[] isLongTerm, int[] entrances, int count) {
+        boolean countsTraffic = graph.countsTraffic();
+        for (int k = 0; k < count; k++) {
+            Node spot = nodes.get(bays[k]);
+            spot.setAllocated(true);
+            spot.setLongTerm(isLongTerm[k]);
+            freeSpots.remove(bays[k]);
+            if (countsTraffic) {
+                graph.congestion().addRoute(route, freeSpots.path(entrances[k], bays[k], route), bays[k]);
+            }
+        }
+        graph.nodeWeightsChanged(bays, count);
+        epoch++;
+    }
+
+    // The vehicle reached its bay: its route no longer counts as driving
+    void arrived(int node) {
+        if (graph.countsTraffic()) {
+            graph.congestion().arrived(node); // Traffic only: the exit field has nothing to repair
+        }
+        epoch++;
+    }
+
+    void release(int node) {
+        nodes.get(node).reset();
+        freeSpots.add(node);
+        if (graph.countsTraffic()) {
+            graph.congestion().arrived(node); // In case the vehicle never reported arriving
+        }
+        graph.nodeWeightChanged(node);
+        epoch++;
+    }
+
+    // The allocated bay's vehicle stays past its time limit; occupancy does not change
+    void markStay(int node) {
+        nodes.get(node).setStay(true);
+        epoch++;
+    }
+
+    // Edge closures and weight changes apply to both directions of u <-> v
+    boolean closeEdge(int u, int v) {
+        int weight = graph.edgeWeight(u, v);
+        if (weight == -1 || weight == Graph.CLOSED) {
+            return false;
+        }
+        closedEdges.put(key(u, v), weight);
+        graph.setEdgeWeight(u, v, Graph.CLOSED);
+        freeSpots = new FreeSpotIndex(graph);
+        epoch++;
+        return true;
+    }
+
+    boolean openEdge(int u, int v) {
+        Integer weight = closedEdges.remove(key(u, v));
+        if (weight == null) {
+            return false;
+        }
+        graph.setEdgeWeight(u, v, weight);
+        freeSpots = new FreeSpotIndex(graph);
+        epoch++;
+        return true;
+    }
+
+    boolean setEdgeWeight(int u, int v, int weight) {
+        if (closedEdges.containsKey(key(u, v))) {
+            closedEdges.put(key(u, v), weight); // Applied when the edge is reopened
+            return true;
+        }
+        if (!graph.setEdgeWeight(u, v, weight)) {
+            return false;
+        }
+        freeSpots = new FreeSpotIndex(graph);
+        epoch++;
+        return true;
+    }
+
+    private static long key(int u, int v) {
+        int a = Math.min(u, v);
+        int b = Math.max(u, v);
+        return ((long) a << 32) | b;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mycompany.dsa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated grid lot: the layout of DSA.main at any size and number of entrances/exits.
+ *
+ * Bays are numbered row-major, one grid cell each, drawn at 60 pixel spacing and joined by unit
+ * weights; the lower half of the rows is two-wheeler. Entrances alternate between the left and
+ * the right side and get the ids right after the bays, followed by the exits along the top side.
+ * A 10x10 lot with two gates therefore has its entrances at 100/101 and its exits at 102/103, as
+ * in DSA.
+ */
+final class LotLayout {
+    static final int GRID_SIZE = 45;
+    static final int PADDING = 15;
+    static final int SPACING = GRID_SIZE + PADDING;
+
+    final int rows;
+    final int cols;
+    final List<Node> nodes = new ArrayList<>();
+    final List<Edge> edges = new ArrayList<>();
+    final int[] entrances;
+    final int[] exits;
+
+    LotLayout(int rows, int cols, int entranceCount, int exitCount) {
+        this.rows = rows;
+        this.cols = cols;
+        this.entrances = new int[entranceCount];
+        this.exits = new int[exitCount];
+        NodeStore store = new NodeStore(rows * cols + entranceCount + exitCount);
+
+        // Bays
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int id = i * cols + j;
+                boolean isTwoWheeler = i >= rows / 2; // Lower half is two-wheeler, as in DSA
+                nodes.add(store.add(id, i, j, j * SPACING, i * SPACING, isTwoWheeler, false, false));
+
+                if (j < cols - 1) {
+                    edges.add(new Edge(id, id + 1, 1));
+                }
+                if (i < rows - 1) {
+                    edges.add(new Edge(id, id + cols, 1));
+                }
+            }
+        }
+
+        // Entrances alternate between the left and the right side of the lot
+        for (int k = 0; k < entranceCount; k++) {
+            int id = nodes.size();
+            int row = spread(k / 2, (entranceCount + 1) / 2, rows);
+            boolean left = k % 2 == 0;
+            int col = left ? -1 : cols;
+            nodes.add(store.add(id, row, col, col * SPACING, row * SPACING, false, true, false));
+            edges.add(new Edge(id, row * cols + (left ? 0 : cols - 1), 1));
+            entrances[k] = id;
+        }
+
+        // Exits are spread along the top side of the lot
+        for (int k = 0; k < exitCount; k++) {
+            int id = nodes.size();
+            int col = spread(k, exitCount, cols);
+            nodes.add(store.add(id, -1, col, col * SPACING, -SPACING, false, false, true));
+            edges.add(new Edge(id, col, 1));
+            exits[k] = id;
+        }
+    }
+
+    static LotLayout square(int side, int gates) {
+        return new LotLayout(side, side, gates, gates);
+    }
+
+    int bayCount() {
+        return rows * cols;
+    }
+
+    Graph buildGraph() {
+        Graph graph = new Graph(nodes.size(), nodes);
+        for (Edge edge : edges) {
+            graph.addEdge(edge.u, edge.v, edge.weight);
+        }
+        return graph;
+    }
+
+    // Position of the k-th of n gates evenly spread over a side of the given length
+    private static int spread(int k, int n, int length) {
+        return (int) ((k + 0.5) * length / n);
+    }
+}
@@ -0,0 +1,156 @@
+package com.mycompany.dsa;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and search counters for the hot paths, switched on with -Ddsa.metrics=true.
+ *
+ * ENABLED is a static final, so with metrics off the JIT folds every recording call away.
+ * With metrics on, a recorded operation costs two System.nanoTime() calls and a few atomic
+ * increments.
+ *
+ * Searches also count nodes expanded (heap polls, or vertex scans for Bellman-Ford), heap
+ * pushes and decrease-keys. There is no stale-pop counter: IndexedMinHeap lowers the key of a
+ * queued node in place, so a search never pops an outdated entry.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("dsa.metrics");
+
+    public enum Operation {
+        ALLOCATE("allocate", false),
+        ALLOCATE_BATCH("allocateBatch", false),
+        ALLOCATE_OPTIMAL("allocateOptimal", false),
+        RELEASE("release", false),
+        DIJKSTRA("dijkstra", true),
+        BELLMAN_FORD("bellmanFord", true),
+        CONTENT_BASED("contentBased", true),
+        JUMP_POINT("jumpPoint", true),
+        COMBINED("combined", true),
+        BIDIRECTIONAL("bidirectional", true),
+        CONTRACTION_HIERARCHY("contractionHierarchy", true),
+        ROUTE_CACHE_HIT("routeCacheHit", false),
+        ROUTE_CACHE_MISS("routeCacheMiss", false),
+        HIERARCHY_BUILD("hierarchyBuild", false),
+        NEAREST_TARGET("nearestTarget", true),
+        CLOSEST_EXIT("closestExit", false),
+        EXIT_FIELD_REPAIR("exitFieldRepair", true);
+
+        final String key;
+        final boolean search; // Has search counters
+        final LatencyRecorder latency = new LatencyRecorder();
+        final LongAdder expanded = new LongAdder();
+        final LongAdder pushes = new LongAdder();
+        final LongAdder decreaseKeys = new LongAdder();
+
+        Operation(String key, boolean search) {
+            this.key = key;
+            this.search = search;
+        }
+    }
+
+    private Metrics() {
+    }
+
+    // Start timestamp for record(), or 0 when metrics are off
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    static void record(Operation operation, long start) {
+        if (ENABLED) {
+            operation.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    // A heap-driven search: the heap's counters cover exactly this search
+    static void record(Operation operation, long start, IndexedMinHeap heap) {
+        if (ENABLED) {
+            operation.latency.record(System.nanoTime() - start);
+            operation.expanded.add(heap.polls());
+            operation.pushes.add(heap.pushes());
+            operation.decreaseKeys.add(heap.decreaseKeys());
+        }
+    }
+
+    // A bidirectional search: both heaps together
+    static void record(Operation operation, long start, IndexedMinHeap forward, IndexedMinHeap backward) {
+        if (ENABLED) {
+            operation.latency.record(System.nanoTime() - start);
+            operation.expanded.add(forward.polls() + backward.polls());
+            operation.pushes.add(forward.pushes() + backward.pushes());
+            operation.decreaseKeys.add(forward.decreaseKeys() + backward.decreaseKeys());
+        }
+    }
+
+    static void record(Operation operation, long start, long expanded) {
+        if (ENABLED) {
+            operation.latency.record(System.nanoTime() - start);
+            operation.expanded.add(expanded);
+        }
+    }
+
+    public static void reset() {
+        for (Operation operation : Operation.values()) {
+            operation.latency.reset();
+            operation.expanded.reset();
+            operation.pushes.reset();
+            operation.decreaseKeys.reset();
+        }
+    }
+
+    // Table of every operation that ran, latencies in microseconds
+    public static String text() {
+        StringBuilder out = new StringBuilder();
+        if (!ENABLED) {
+            return "metrics disabled (run with -Ddsa.metrics=true)\n";
+        }
+        out.append(String.format(Locale.ROOT, "%-17s %10s %9s %9s %9s %9s %9s %12s %12s %12s%n",
+                "operation", "count", "mean us", "p50 us", "p99 us", "p999 us", "max us",
+                "expanded", "pushes", "decreaseKeys"));
+        for (Operation op : Operation.values()) {
+            LatencyRecorder latency = op.latency;
+            if (latency.count() == 0) {
+                continue;
+            }
+            out.append(String.format(Locale.ROOT, "%-17s %10d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    op.key, latency.count(), latency.mean() / 1000, latency.percentile(0.5) / 1000.0,
+                    latency.percentile(0.99) / 1000.0, latency.percentile(0.999) / 1000.0, latency.max() / 1000.0));
+            if (op.search) {
+                out.append(String.format(Locale.ROOT, " %12d %12d %12d", op.expanded.sum(), op.pushes.sum(), op.decreaseKeys.sum()));
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    // The same snapshot as one JSON object, latencies in nanoseconds
+    public static String json() {
+        StringBuilder out = new StringBuilder("{\"enabled\":").append(ENABLED).append(",\"operations\":{");
+        boolean first = true;
+        for (Operation op : Operation.values()) {
+            LatencyRecorder latency = op.latency;
+            if (latency.count() == 0) {
+                continue;
+            }
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append('"').append(op.key).append("\":{")
+                    .append("\"count\":").append(latency.count())
+                    .append(",\"meanNanos\":").append(Math.round(latency.mean()))
+                    .append(",\"p50Nanos\":").append(latency.percentile(0.5))
+                    .append(",\"p99Nanos\":").append(latency.percentile(0.99))
+                    .append(",\"p999Nanos\":").append(latency.percentile(0.999))
+                    .append(",\"maxNanos\":").append(latency.max());
+            if (op.search) {
+                out.append(",\"expanded\":").append(op.expanded.sum())
+                        .append(",\"heapPushes\":").append(op.pushes.sum())
+                        .append(",\"decreaseKeys\":").append(op.decreaseKeys.sum());
+            }
+            out.append('}');
+        }
+        return out.append("}}").toString();
+    }
+}
@@ -2,65 +2,158 @@ package com.mycompany.dsa;
 
 import java.awt.Color;
 
+/**
+ * One node of the lot: a view of its slot in a NodeStore.
+ *
+ * Nodes built with the public constructors start in a store of their own and are moved into the
+ * shared store of the lot when a Graph is built over their list.
+ */
 public class Node {
-    public int id; // Unique identifier for the node
-    public int x; // X-coordinate of the node
-    public int y; // Y-coordinate of the node
-    public boolean isTwoWheeler; // Indicates if the node is for two-wheeler parking
-    public boolean isAllocated; // Indicates if the node is allocated
-    public boolean isLongTerm; // Indicates if the node is for long-term parking
-    public boolean isStay; // Indicates if the node is in a "stay" state
-    public boolean isEntry; // Indicates if the node is an entry point
-    public boolean isExit; // Indicates if the node is an exit point
-    public Color color; // Node's color
-    public boolean isLeave; // Indicates if the node is in a "leave" state
-    public int overstayedTime; // Tracks overstayed time in seconds
-
-    // Updated Constructor
+    public static final int NO_CELL = Integer.MIN_VALUE; // Row/col of a node placed by pixels only
+
+    private NodeStore store;
+    private int index;
+
+    // Node without a grid cell; the searches infer the grid from the pixel positions
     public Node(int id, int x, int y, boolean isTwoWheeler, boolean isEntry, boolean isExit) {
-        this.id = id;
-        this.x = x;
-        this.y = y;
-        this.isTwoWheeler = isTwoWheeler;
-        this.isEntry = isEntry;
-        this.isExit = isExit;
-        this.color = Color.GRAY; // Default color for unallocated nodes
-        reset(); // Initialize other attributes to default values
+        this(id, NO_CELL, NO_CELL, x, y, isTwoWheeler, isEntry, isExit);
+    }
+
+    // Node on grid cell (row, col), drawn at pixel (x, y)
+    public Node(int id, int row, int col, int x, int y, boolean isTwoWheeler, boolean isEntry, boolean isExit) {
+        NodeStore own = new NodeStore(1);
+        Node view = own.add(id, row, col, x, y, isTwoWheeler, isEntry, isExit);
+        this.store = own;
+        this.index = view.index;
+    }
+
+    Node(NodeStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    NodeStore store() {
+        return store;
+    }
+
+    int index() {
+        return index;
+    }
+
+    void moveTo(NodeStore target) {
+        index = target.copy(store, index);
+        store = target;
+    }
+
+    public int id() {
+        return store.id(index);
+    }
+
+    // Grid cell, used by the searches
+    public int row() {
+        return store.row(index);
+    }
+
+    public int col() {
+        return store.col(index);
+    }
+
+    public boolean hasCell() {
+        return store.row(index) != NO_CELL;
+    }
+
+    // Position on screen
+    public int x() {
+        return store.x(index);
+    }
+
+    public int y() {
+        return store.y(index);
+    }
+
+    public boolean isTwoWheeler() {
+        return store.isTwoWheeler(index);
+    }
+
+    public boolean isEntry() {
+        return store.isEntry(index);
+    }
+
+    public boolean isExit() {
+        return store.isExit(index);
+    }
+
+    public boolean isAllocated() {
+        return store.isAllocated(index);
+    }
+
+    public void setAllocated(boolean allocated) {
+        store.set(index, NodeStore.ALLOCATED, allocated);
+    }
+
+    public boolean isLongTerm() {
+        return store.has(index, NodeStore.LONG_TERM);
+    }
+
+    public void setLongTerm(boolean longTerm) {
+        store.set(index, NodeStore.LONG_TERM, longTerm);
+    }
+
+    // The vehicle was allowed to stay past its time limit
+    public boolean isStay() {
+        return store.has(index, NodeStore.STAY);
+    }
+
+    public void setStay(boolean stay) {
+        store.set(index, NodeStore.STAY, stay);
+    }
+
+    public boolean isLeave() {
+        return store.has(index, NodeStore.LEAVE);
+    }
+
+    public void setLeave(boolean leave) {
+        store.set(index, NodeStore.LEAVE, leave);
+    }
+
+    // Colour of the node's current state on the lot display
+    public Color color() {
+        if (isStay()) {
+            return Color.YELLOW;
+        } else if (isLeave()) {
+            return Color.GRAY;
+        } else if (isLongTerm()) {
+            return Color.PINK;
+        } else if (isAllocated()) {
+            return Color.GREEN;
+        } else if (isEntry()) {
+            return Color.BLUE;
+        } else if (isExit()) {
+            return Color.RED;
+        }
+        return Color.LIGHT_GRAY;
     }
 
     // Reset the node's state to its default values
     public void reset() {
-        this.isAllocated = false;
-        this.isLongTerm = false;
-        this.isStay = false;
-        this.isLeave = false;
-        this.overstayedTime = 0;
-        this.color = Color.GRAY; // Reset to default color
+        store.reset(index);
     }
 
     @Override
     public String toString() {
         return "Node{" +
-                "id=" + id +
-                ", x=" + x +
-                ", y=" + y +
-                ", isTwoWheeler=" + isTwoWheeler +
-                ", isAllocated=" + isAllocated +
-                ", isLongTerm=" + isLongTerm +
-                ", isStay=" + isStay +
-                ", isEntry=" + isEntry +
-                ", isExit=" + isExit +
-                ", isLeave=" + isLeave +
-                ", overstayedTime=" + overstayedTime +
-                ", color=" + color +
+                "id=" + id() +
+                ", row=" + row() +
+                ", col=" + col() +
+                ", x=" + x() +
+                ", y=" + y() +
+                ", isTwoWheeler=" + isTwoWheeler() +
+                ", isAllocated=" + isAllocated() +
+                ", isLongTerm=" + isLongTerm() +
+                ", isStay=" + isStay() +
+                ", isEntry=" + isEntry() +
+                ", isExit=" + isExit() +
+                ", isLeave=" + isLeave() +
                 '}';
     }
-    
-    public void deallocate() {
-        this.isAllocated = false; // Mark as not allocated
-        this.isLongTerm = false; // Clear long-term state
-        this.isStay = false; // Clear stay state
-        this.color = Color.GRAY; // Reset color to default
-    }
-
 }
@@ -0,0 +1,151 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * State of every node of a lot in parallel primitive arrays; a Node is a view of one slot.
+ *
+ * The kind and the allocation state of a node are bits of one byte, so a scan over the bays reads
+ * a single byte array instead of chasing one object per bay. Searches and indexes read the store
+ * directly by node id; UI and engine code keep using Node. Each slot has one writer at a time:
+ * the single-threaded engine, or the gate holding the bay's claim in the concurrent one.
+ */
+final class NodeStore {
+    // Kind of node, fixed at creation
+    static final int TWO_WHEELER = 1;
+    static final int ENTRY = 1 << 1;
+    static final int EXIT = 1 << 2;
+    // Allocation state, cleared by reset()
+    static final int ALLOCATED = 1 << 3;
+    static final int LONG_TERM = 1 << 4;
+    static final int STAY = 1 << 5;
+    static final int LEAVE = 1 << 6;
+    private static final int STATE = ALLOCATED | LONG_TERM | STAY | LEAVE;
+
+    private int[] ids;
+    private int[] rows;
+    private int[] cols;
+    private int[] xs;
+    private int[] ys;
+    private byte[] flags;
+    private int size;
+
+    NodeStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        ids = new int[capacity];
+        rows = new int[capacity];
+        cols = new int[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        flags = new byte[capacity];
+    }
+
+    /**
+     * Store behind the node list, with slot i holding nodes.get(i). Nodes already in one store at
+     * their list position keep it; otherwise every node is moved into a new store.
+     */
+    static NodeStore of(List<Node> nodes) {
+        NodeStore shared = nodes.isEmpty() ? null : nodes.get(0).store();
+        boolean aligned = shared != null;
+        for (int i = 0; aligned && i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            aligned = node.store() == shared && node.index() == i;
+        }
+        if (aligned) {
+            return shared;
+        }
+        NodeStore store = new NodeStore(nodes.size());
+        for (Node node : nodes) {
+            node.moveTo(store);
+        }
+        return store;
+    }
+
+    // Append a node and return the view of it
+    Node add(int id, int row, int col, int x, int y, boolean isTwoWheeler, boolean isEntry, boolean isExit) {
+        int kind = (isTwoWheeler ? TWO_WHEELER : 0) | (isEntry ? ENTRY : 0) | (isExit ? EXIT : 0);
+        return new Node(this, append(id, row, col, x, y, kind));
+    }
+
+    // Copy slot i of another store to the end of this one and return its index
+    int copy(NodeStore from, int i) {
+        return append(from.ids[i], from.rows[i], from.cols[i], from.xs[i], from.ys[i], from.flags[i]);
+    }
+
+    private int append(int id, int row, int col, int x, int y, int bits) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            cols = Arrays.copyOf(cols, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        ids[size] = id;
+        rows[size] = row;
+        cols[size] = col;
+        xs[size] = x;
+        ys[size] = y;
+        flags[size] = (byte) bits;
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int id(int i) {
+        return ids[i];
+    }
+
+    int row(int i) {
+        return rows[i];
+    }
+
+    int col(int i) {
+        return cols[i];
+    }
+
+    int x(int i) {
+        return xs[i];
+    }
+
+    int y(int i) {
+        return ys[i];
+    }
+
+    boolean has(int i, int flag) {
+        return (flags[i] & flag) != 0;
+    }
+
+    void set(int i, int flag, boolean on) {
+        flags[i] = (byte) (on ? flags[i] | flag : flags[i] & ~flag);
+    }
+
+    boolean isAllocated(int i) {
+        return (flags[i] & ALLOCATED) != 0;
+    }
+
+    boolean isTwoWheeler(int i) {
+        return (flags[i] & TWO_WHEELER) != 0;
+    }
+
+    boolean isEntry(int i) {
+        return (flags[i] & ENTRY) != 0;
+    }
+
+    boolean isExit(int i) {
+        return (flags[i] & EXIT) != 0;
+    }
+
+    boolean isBay(int i) {
+        return (flags[i] & (ENTRY | EXIT)) == 0;
+    }
+
+    // Back to free: clears the allocation state, keeps the kind
+    void reset(int i) {
+        flags[i] = (byte) (flags[i] & ~STATE);
+    }
+}
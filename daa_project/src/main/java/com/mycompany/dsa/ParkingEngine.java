@@ -0,0 +1,509 @@
+package com.mycompany.dsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Headless allocation engine: the allocate/release/extend/query operations behind the Swing UI.
+ *
+ * Every operation returns a result object instead of showing a dialog, so the engine can be
+ * driven from tests, load generators and gate controllers as well as from VehicleSelection and
+ * AllocationDisplay.
+ *
+ * Both engines allocate by the same term zones (EntranceRanking): a short-term request gets the
+ * nearest free bay among the half of its class's bays closest to the entrances, a long-term
+ * request the nearest among the rest, and either takes the other zone when its own is full.
+ *
+ * The default engine is not thread-safe. An engine from concurrent() lets gates on different
+ * threads allocate and release at the same time: bays are claimed lock-free from a
+ * StripedLotState, which spreads each term zone over stripes so gates on different cores rarely
+ * collide. A gate thread starts from the stripe picked by its thread id. Every claim numbers the
+ * bay's allocation, and a release wins by negating that number in one atomic step, so of two
+ * releases of the same allocation racing each other only one frees the bay. In that mode allocation changes
+ * and routes are not fed back into the congestion weights of the contextual searches and the
+ * exit distance field, which keep pricing the lot as it was when the engine was created. Edge
+ * closures and weight changes need the gates to be quiet. The stay flags set by extend() are kept
+ * in their own atomic bits rather than in the Node flags, so query() sees them but the lot
+ * display does not draw them.
+ *
+ * Once a contextual search has run, the routes handed out by the single-threaded engine count as
+ * congestion for those searches: as traffic while they are among the most recent ones, and as a
+ * vehicle driving the aisle until arrived() reports it parked.
+ *
+ * allocate(List) takes a burst of vehicles, such as a convoy at one gate, in one pass: the
+ * requests of each entrance, vehicle class and term take the nearest free bays of that
+ * entrance's ranking from a single scan, earlier requests first, and every bay is marked taken before the
+ * next group runs, so no two requests of a batch get the same bay. allocateOptimal() assigns a
+ * batch with the smallest total drive cost instead (AuctionAssignment), and AssignmentWindow
+ * feeds it a sliding window of pending arrivals. Both are single-threaded engine only: the
+ * concurrent engine cannot hold a whole window's bays while it solves, and rejects them.
+ *
+ * Every allocation gets a deadline of its term's time limit on the engine's clock. One thread
+ * calls advanceTime() periodically to collect the bays whose deadline passed; overstay is
+ * measured from the deadline once the vehicle was allowed to stay.
+ */
+public class ParkingEngine {
+    private static final long ANY_ALLOCATION = 0; // Allocation numbers start at 1
+
+    private final LotGraph lotGraph;
+    private final StripedLotState concurrentSpots; // null unless concurrent()
+    private final BayClaims stays; // null unless concurrent(): the stay flags, set from any thread
+    private final AtomicLongArray allocations; // null unless concurrent(): bay -> allocation number, negated once released
+    private final BayTimers timers;
+
+    public ParkingEngine(List<Node> nodes, List<Edge> edges) {
+        this(nodes, edges, System::currentTimeMillis);
+    }
+
+    // Engine whose time limits run on the given clock, e.g. scaled time in a simulation
+    public ParkingEngine(List<Node> nodes, List<Edge> edges, LongSupplier clockMillis) {
+        this(new LotGraph(nodes, edges), 0, clockMillis);
+    }
+
+    ParkingEngine(LotGraph lotGraph) {
+        this(lotGraph, 0, System::currentTimeMillis);
+    }
+
+    // stripesPerZone == 0 builds the single-threaded engine
+    private ParkingEngine(LotGraph lotGraph, int stripesPerZone, LongSupplier clockMillis) {
+        this.lotGraph = lotGraph;
+        this.timers = new BayTimers(lotGraph.nodes().size(), clockMillis);
+        if (stripesPerZone > 0) {
+            lotGraph.graph().exitField(); // Built up front: lazy initialisation is not thread-safe
+            this.concurrentSpots = new StripedLotState(lotGraph.graph(), stripesPerZone);
+            this.stays = new BayClaims(lotGraph.nodes().size());
+            this.allocations = new AtomicLongArray(lotGraph.nodes().size());
+        } else {
+            this.concurrentSpots = null;
+            this.stays = null;
+            this.allocations = null;
+        }
+    }
+
+    // Engine whose allocate/release/extend/query may be called from any number of threads
+    public static ParkingEngine concurrent(List<Node> nodes, List<Edge> edges) {
+        return concurrent(nodes, edges, 1);
+    }
+
+    // As concurrent(nodes, edges), with every zone split into stripesPerZone stripes
+    public static ParkingEngine concurrent(List<Node> nodes, List<Edge> edges, int stripesPerZone) {
+        return concurrent(nodes, edges, stripesPerZone, System::currentTimeMillis);
+    }
+
+    public static ParkingEngine concurrent(List<Node> nodes, List<Edge> edges, int stripesPerZone,
+                                           LongSupplier clockMillis) {
+        if (stripesPerZone < 1) {
+            throw new IllegalArgumentException("stripesPerZone must be at least 1: " + stripesPerZone);
+        }
+        return new ParkingEngine(new LotGraph(nodes, edges), stripesPerZone, clockMillis);
+    }
+
+    public boolean isConcurrent() {
+        return concurrentSpots != null;
+    }
+
+    LotGraph lotGraph() {
+        return lotGraph;
+    }
+
+    // Allocate the free bay of the vehicle class with the lowest drive cost from the entrance
+    public AllocationResult allocate(VehicleClass vehicleClass, ParkingTerm term, int entrance) {
+        long start = Metrics.start();
+        AllocationResult result = allocateSpot(vehicleClass, term, entrance);
+        Metrics.record(Metrics.Operation.ALLOCATE, start);
+        return result;
+    }
+
+    /**
+     * Allocation-free allocate for gate controllers: writes the route from the entrance to the bay
+     * into route, which needs room for every node of the lot, and returns its length. The bay is
+     * route[length - 1]. Returns 0 if no bay was allocated, for an invalid entrance as well as a
+     * full lot.
+     */
+    public int allocate(VehicleClass vehicleClass, ParkingTerm term, int entrance, int[] route) {
+        long start = Metrics.start();
+        int length = allocateSpot(vehicleClass.isTwoWheeler(), term, entrance, route);
+        Metrics.record(Metrics.Operation.ALLOCATE, start);
+        return length;
+    }
+
+    private int allocateSpot(boolean isTwoWheeler, ParkingTerm term, int entrance, int[] route) {
+        List<Node> nodes = lotGraph.nodes();
+        if (entrance < 0 || entrance >= nodes.size() || !nodes.get(entrance).isEntry()) {
+            return 0;
+        }
+        if (concurrentSpots != null) {
+            int spot = claim(isTwoWheeler, term, entrance);
+            if (spot == -1) {
+                return 0;
+            }
+            EntranceRanking ranking = concurrentSpots.ranking();
+            return ranking.path(ranking.entranceSlot(entrance), spot, route);
+        }
+
+        int spot = lotGraph.nearestFreeBay(entrance, isTwoWheeler, term.isLongTerm());
+        if (spot == -1) {
+            return 0;
+        }
+        lotGraph.allocate(spot, term.isLongTerm(), entrance);
+        timers.start(spot, term.timeLimitSeconds());
+        return lotGraph.entrancePath(entrance, spot, route);
+    }
+
+    private AllocationResult allocateSpot(VehicleClass vehicleClass, ParkingTerm term, int entrance) {
+        List<Node> nodes = lotGraph.nodes();
+        if (entrance < 0 || entrance >= nodes.size() || !nodes.get(entrance).isEntry()) {
+            return AllocationResult.rejected(AllocationResult.Status.INVALID_ENTRANCE, entrance, vehicleClass, term);
+        }
+
+        if (concurrentSpots != null) {
+            return allocateConcurrently(vehicleClass, term, entrance);
+        }
+
+        int spot = lotGraph.nearestFreeBay(entrance, vehicleClass.isTwoWheeler(), term.isLongTerm());
+        if (spot == -1) {
+            return AllocationResult.rejected(AllocationResult.Status.NO_SPOT_AVAILABLE, entrance, vehicleClass, term);
+        }
+
+        lotGraph.allocate(spot, term.isLongTerm(), entrance);
+        timers.start(spot, term.timeLimitSeconds());
+        return new AllocationResult(AllocationResult.Status.ALLOCATED, spot, entrance, vehicleClass, term,
+                lotGraph.entrancePath(entrance, spot));
+    }
+
+    private AllocationResult allocateConcurrently(VehicleClass vehicleClass, ParkingTerm term, int entrance) {
+        int spot = claim(vehicleClass.isTwoWheeler(), term, entrance);
+        if (spot == -1) {
+            return AllocationResult.rejected(AllocationResult.Status.NO_SPOT_AVAILABLE, entrance, vehicleClass, term);
+        }
+        EntranceRanking ranking = concurrentSpots.ranking();
+        return new AllocationResult(AllocationResult.Status.ALLOCATED, spot, entrance, vehicleClass, term,
+                ranking.path(ranking.entranceSlot(entrance), spot));
+    }
+
+    // Claim a bay of the concurrent engine and start its timer; -1 if none is free
+    private int claim(boolean isTwoWheeler, ParkingTerm term, int entrance) {
+        int home = (int) Thread.currentThread().threadId();
+        int spot = concurrentSpots.claim(entrance, isTwoWheeler, term.isLongTerm(), home);
+        if (spot == -1) {
+            return -1;
+        }
+
+        // The claim is what counts; the Node flags mirror it for display and queries
+        stays.release(spot); // Left over if the previous vehicle's extend raced its release
+        allocations.set(spot, 1 - allocations.get(spot)); // Only the claimant writes a released number
+        Node node = lotGraph.nodes().get(spot);
+        node.setLongTerm(term.isLongTerm());
+        node.setAllocated(true);
+        timers.start(spot, term.timeLimitSeconds());
+        return spot;
+    }
+
+    // Allocate a batch; the results are in the order of the requests
+    public List<AllocationResult> allocate(List<AllocationRequest> requests) {
+        long start = Metrics.start();
+        AllocationResult[] results = new AllocationResult[requests.size()];
+        if (concurrentSpots != null) {
+            for (int i = 0; i < results.length; i++) {
+                AllocationRequest request = requests.get(i);
+                results[i] = allocateSpot(request.vehicleClass(), request.term(), request.entrance());
+            }
+        } else {
+            allocateBatch(requests, results);
+        }
+        Metrics.record(Metrics.Operation.ALLOCATE_BATCH, start, results.length);
+        return Arrays.asList(results);
+    }
+
+    private void allocateBatch(List<AllocationRequest> requests, AllocationResult[] results) {
+        List<Node> nodes = lotGraph.nodes();
+        // Requests by entrance, vehicle class and term, groups in order of their first request
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            AllocationRequest request = requests.get(i);
+            int entrance = request.entrance();
+            if (entrance < 0 || entrance >= nodes.size() || !nodes.get(entrance).isEntry()) {
+                results[i] = AllocationResult.rejected(AllocationResult.Status.INVALID_ENTRANCE, entrance,
+                        request.vehicleClass(), request.term());
+                continue;
+            }
+            long key = (long) entrance << 2
+                    | EntranceRanking.zone(EntranceRanking.vehicleClass(request.vehicleClass().isTwoWheeler()), request.term().isLongTerm());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        int[] bays = new int[0];
+        boolean[] isLongTerm = new boolean[0];
+        int[] entrances = new int[0];
+        for (List<Integer> group : groups.values()) {
+            AllocationRequest first = requests.get(group.get(0));
+            if (bays.length < group.size()) {
+                bays = new int[group.size()];
+                isLongTerm = new boolean[group.size()];
+                entrances = new int[group.size()];
+            }
+            int found = lotGraph.nearestFreeBays(first.entrance(), first.vehicleClass().isTwoWheeler(), first.term().isLongTerm(),
+                    bays, group.size());
+            for (int k = 0; k < found; k++) {
+                isLongTerm[k] = requests.get(group.get(k)).term().isLongTerm();
+                entrances[k] = first.entrance();
+            }
+            lotGraph.allocate(bays, isLongTerm, entrances, found); // Taken before the next group picks its bays
+
+            for (int k = 0; k < group.size(); k++) {
+                int i = group.get(k);
+                AllocationRequest request = requests.get(i);
+                if (k >= found) {
+                    results[i] = AllocationResult.rejected(AllocationResult.Status.NO_SPOT_AVAILABLE,
+                            request.entrance(), request.vehicleClass(), request.term());
+                    continue;
+                }
+                timers.start(bays[k], request.term().timeLimitSeconds());
+                results[i] = new AllocationResult(AllocationResult.Status.ALLOCATED, bays[k], request.entrance(),
+                        request.vehicleClass(), request.term(), lotGraph.entrancePath(request.entrance(), bays[k]));
+            }
+        }
+    }
+
+    /**
+     * Allocate a batch with the smallest total drive cost from the entrances, instead of nearest
+     * bay first per request, so gates competing for the same bays share them out well. Vehicles
+     * only go without a bay when no assignment can place them all. Throws IllegalStateException
+     * on a concurrent engine, whose gates claim bays one by one; use allocate(List) there.
+     */
+    public List<AllocationResult> allocateOptimal(List<AllocationRequest> requests) {
+        return allocateOptimal(requests, requests.size());
+    }
+
+    // Solve for all requests, but only allocate the first commitCount; results are for those
+    List<AllocationResult> allocateOptimal(List<AllocationRequest> requests, int commitCount) {
+        if (concurrentSpots != null) {
+            throw new IllegalStateException("allocateOptimal needs the single-threaded engine");
+        }
+        long start = Metrics.start();
+        List<Node> nodes = lotGraph.nodes();
+        int n = requests.size();
+        int[] vehicles = new int[n]; // Requests with a valid entrance
+        int valid = 0;
+        int[] perClass = new int[EntranceRanking.CLASSES];
+        for (int i = 0; i < n; i++) {
+            int entrance = requests.get(i).entrance();
+            if (entrance >= 0 && entrance < nodes.size() && nodes.get(entrance).isEntry()) {
+                vehicles[valid++] = i;
+                perClass[EntranceRanking.vehicleClass(requests.get(i).vehicleClass().isTwoWheeler())]++;
+            }
+        }
+
+        // Candidates: the first k free bays the vehicle's entrance and term would get, own term zone first,
+        // k = vehicles of its class, enough for every vehicle to get a bay whenever the free bays allow it
+        Map<Long, int[][]> candidateLists = new LinkedHashMap<>();
+        int[][] bays = new int[valid][];
+        int[][] costs = new int[valid][];
+        long maxCost = 0;
+        for (int v = 0; v < valid; v++) {
+            AllocationRequest request = requests.get(vehicles[v]);
+            boolean isTwoWheeler = request.vehicleClass().isTwoWheeler();
+            boolean isLongTerm = request.term().isLongTerm();
+            int entrance = request.entrance();
+            int vehicleClass = EntranceRanking.vehicleClass(isTwoWheeler);
+            int k = perClass[vehicleClass];
+            int[][] list = candidateLists.computeIfAbsent((long) entrance << 2 | EntranceRanking.zone(vehicleClass, isLongTerm), key -> {
+                int[] nearest = new int[k];
+                int found = lotGraph.nearestFreeBays(entrance, isTwoWheeler, isLongTerm, nearest, k);
+                int[] nearestCosts = new int[found];
+                for (int c = 0; c < found; c++) {
+                    nearestCosts[c] = lotGraph.entranceCost(entrance, nearest[c]);
+                }
+                return new int[][]{Arrays.copyOf(nearest, found), nearestCosts};
+            });
+            bays[v] = list[0];
+            costs[v] = list[1];
+            for (int cost : list[1]) {
+                maxCost = Math.max(maxCost, cost);
+            }
+        }
+        int[] assignment = AuctionAssignment.solve(bays, costs, valid * maxCost + 1);
+
+        AllocationResult[] results = new AllocationResult[commitCount];
+        int[] chosen = new int[valid];
+        boolean[] isLongTerm = new boolean[valid];
+        int[] entrances = new int[valid];
+        int count = 0;
+        for (int v = 0; v < valid && vehicles[v] < commitCount; v++) {
+            if (assignment[v] != -1) {
+                chosen[count] = assignment[v];
+                entrances[count] = requests.get(vehicles[v]).entrance();
+                isLongTerm[count++] = requests.get(vehicles[v]).term().isLongTerm();
+            }
+        }
+        lotGraph.allocate(chosen, isLongTerm, entrances, count);
+
+        for (int i = 0, v = 0; i < commitCount; i++) {
+            AllocationRequest request = requests.get(i);
+            boolean isValid = v < valid && vehicles[v] == i;
+            int spot = isValid ? assignment[v++] : -1;
+            if (!isValid) {
+                results[i] = AllocationResult.rejected(AllocationResult.Status.INVALID_ENTRANCE, request.entrance(),
+                        request.vehicleClass(), request.term());
+            } else if (spot == -1) {
+                results[i] = AllocationResult.rejected(AllocationResult.Status.NO_SPOT_AVAILABLE, request.entrance(),
+                        request.vehicleClass(), request.term());
+            } else {
+                timers.start(spot, request.term().timeLimitSeconds());
+                results[i] = new AllocationResult(AllocationResult.Status.ALLOCATED, spot, request.entrance(),
+                        request.vehicleClass(), request.term(), lotGraph.entrancePath(request.entrance(), spot));
+            }
+        }
+        Metrics.record(Metrics.Operation.ALLOCATE_OPTIMAL, start, n);
+        return Arrays.asList(results);
+    }
+
+    // The vehicle allocated to the bay reached it, so its route no longer counts as driving
+    public void arrived(int spotId) {
+        requireBay(spotId);
+        if (concurrentSpots == null) {
+            lotGraph.arrived(spotId);
+        }
+    }
+
+    // Free the bay and report its overstay and the nearest exit
+    public ReleaseResult release(int spotId) {
+        long start = Metrics.start();
+        ReleaseResult result = releaseSpot(spotId);
+        Metrics.record(Metrics.Operation.RELEASE, start);
+        return result;
+    }
+
+    private ReleaseResult releaseSpot(int spotId) {
+        if (!isBay(spotId)) {
+            return ReleaseResult.rejected(ReleaseResult.Status.INVALID_SPOT, spotId);
+        }
+        int[] exit = new int[2];
+        int overstayedSeconds = freeSpot(spotId, ANY_ALLOCATION, exit);
+        if (overstayedSeconds == -1) {
+            return ReleaseResult.rejected(ReleaseResult.Status.NOT_ALLOCATED, spotId);
+        }
+        return new ReleaseResult(ReleaseResult.Status.RELEASED, spotId, overstayedSeconds, exit[0], exit[1]);
+    }
+
+    /**
+     * Allocation-free release: writes the nearest exit and its drive cost to exit[0] and exit[1],
+     * as ReleaseResult reports them, and returns the overstay in seconds, or -1 if the bay was not
+     * allocated. Throws IllegalArgumentException if spotId is not a bay.
+     */
+    public int release(int spotId, int[] exit) {
+        requireBay(spotId);
+        long start = Metrics.start();
+        int overstayedSeconds = freeSpot(spotId, ANY_ALLOCATION, exit);
+        Metrics.record(Metrics.Operation.RELEASE, start);
+        return overstayedSeconds;
+    }
+
+    /**
+     * Concurrent engine only: release the bay if it still holds the given allocation, from
+     * allocationOf(). A duplicate release that only gets there after the bay was allocated again
+     * returns NOT_ALLOCATED instead of freeing the next vehicle's bay.
+     */
+    ReleaseResult release(int spotId, long allocation) {
+        requireBay(spotId);
+        int[] exit = new int[2];
+        int overstayedSeconds = freeSpot(spotId, allocation, exit);
+        if (overstayedSeconds == -1) {
+            return ReleaseResult.rejected(ReleaseResult.Status.NOT_ALLOCATED, spotId);
+        }
+        return new ReleaseResult(ReleaseResult.Status.RELEASED, spotId, overstayedSeconds, exit[0], exit[1]);
+    }
+
+    // Concurrent engine only: number of the bay's current allocation, or 0 if it is free
+    long allocationOf(int spotId) {
+        return Math.max(0, allocations.get(spotId));
+    }
+
+    // allocation is the one to release on the concurrent engine, or ANY_ALLOCATION
+    private int freeSpot(int spotId, long allocation, int[] exit) {
+        Node node = lotGraph.nodes().get(spotId);
+        if (concurrentSpots != null) {
+            // Of concurrent releases of one allocation, only the one that negates its number goes on
+            long current = allocations.get(spotId);
+            if (current <= 0 || (allocation != ANY_ALLOCATION && allocation != current)
+                    || !allocations.compareAndSet(spotId, current, -current)) {
+                return -1;
+            }
+            int overstayedSeconds = overstayedSeconds(node); // Read before the reset
+            timers.cancel(spotId);
+            node.reset(); // Before the bay becomes claimable again
+            stays.release(spotId);
+            concurrentSpots.release(spotId);
+            lotGraph.graph().closestExit(spotId, exit);
+            return overstayedSeconds;
+        }
+
+        if (!node.isAllocated()) {
+            return -1;
+        }
+        int overstayedSeconds = overstayedSeconds(node); // Read before the reset
+        timers.cancel(spotId);
+        lotGraph.release(spotId);
+        lotGraph.graph().closestExit(spotId, exit);
+        return overstayedSeconds;
+    }
+
+    /**
+     * Let the vehicle stay past its time limit; overstay is counted from the deadline. A bay that
+     * is not allocated is left untouched, and the returned status reports it as not allocated.
+     */
+    public SpotStatus extend(int spotId) {
+        requireBay(spotId);
+        if (concurrentSpots != null) {
+            if (allocations.get(spotId) > 0) {
+                stays.tryClaim(spotId);
+            }
+        } else if (lotGraph.nodes().get(spotId).isAllocated()) {
+            lotGraph.markStay(spotId);
+        }
+        return query(spotId);
+    }
+
+    public SpotStatus query(int spotId) {
+        requireBay(spotId);
+        Node node = lotGraph.nodes().get(spotId);
+        return new SpotStatus(node, isStay(node), node.isAllocated() && timers.isExpired(spotId), overstayedSeconds(node));
+    }
+
+    /**
+     * Hand every bay whose time limit ran out since the previous call to the handler, as one
+     * batch, and return how many there were. Call from one thread at a time, e.g. a UI timer.
+     */
+    public int advanceTime(ExpiryHandler handler) {
+        return timers.advance(handler);
+    }
+
+    private int overstayedSeconds(Node node) {
+        return isStay(node) ? timers.overstayedSeconds(node.id()) : 0;
+    }
+
+    // The concurrent engine keeps stay flags apart from the Node flags, which only the owning gate writes
+    private boolean isStay(Node node) {
+        return stays != null ? stays.isClaimed(node.id()) : node.isStay();
+    }
+
+    public boolean isBay(int spotId) {
+        List<Node> nodes = lotGraph.nodes();
+        if (spotId < 0 || spotId >= nodes.size()) {
+            return false;
+        }
+        Node node = nodes.get(spotId);
+        return !node.isEntry() && !node.isExit();
+    }
+
+    private void requireBay(int spotId) {
+        if (!isBay(spotId)) {
+            throw new IllegalArgumentException("No parking spot " + spotId);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.mycompany.dsa;
+
+/**
+ * Term of a parking allocation and the time a vehicle may stay before it is asked to leave.
+ */
+public enum ParkingTerm {
+    LONG_TERM(20),
+    SHORT_TERM(10);
+
+    private final int timeLimitSeconds;
+
+    ParkingTerm(int timeLimitSeconds) {
+        this.timeLimitSeconds = timeLimitSeconds;
+    }
+
+    public int timeLimitSeconds() {
+        return timeLimitSeconds;
+    }
+
+    public boolean isLongTerm() {
+        return this == LONG_TERM;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mycompany.dsa;
+
+/**
+ * Outcome of ParkingEngine.release.
+ */
+public final class ReleaseResult {
+    public enum Status {
+        RELEASED,
+        NOT_ALLOCATED,
+        INVALID_SPOT
+    }
+
+    private final Status status;
+    private final int spot;
+    private final int overstayedSeconds;
+    private final int closestExit;
+    private final int exitDistance;
+
+    ReleaseResult(Status status, int spot, int overstayedSeconds, int closestExit, int exitDistance) {
+        this.status = status;
+        this.spot = spot;
+        this.overstayedSeconds = overstayedSeconds;
+        this.closestExit = closestExit;
+        this.exitDistance = exitDistance;
+    }
+
+    static ReleaseResult rejected(Status status, int spot) {
+        return new ReleaseResult(status, spot, 0, -1, Integer.MAX_VALUE);
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean isReleased() {
+        return status == Status.RELEASED;
+    }
+
+    public int spot() {
+        return spot;
+    }
+
+    public int overstayedSeconds() {
+        return overstayedSeconds;
+    }
+
+    // Nearest exit from the released bay, or -1 if no exit can be reached
+    public int closestExit() {
+        return closestExit;
+    }
+
+    // Drive cost to closestExit(), or Integer.MAX_VALUE
+    public int exitDistance() {
+        return exitDistance;
+    }
+
+    @Override
+    public String toString() {
+        return "ReleaseResult{" +
+                "status=" + status +
+                ", spot=" + spot +
+                ", overstayedSeconds=" + overstayedSeconds +
+                ", closestExit=" + closestExit +
+                ", exitDistance=" + exitDistance +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.mycompany.dsa;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of routes in front of the searches of one Graph, keyed by source,
+ * destination, algorithm and the graph's topology version.
+ *
+ * Paths are stored as compact int[] arrays and handed out shared, so callers must not modify
+ * them. An edge or weight change bumps the topology version, and an entry of an older version
+ * never matches again; it is replaced in place on the next query for its pair. Routes of the
+ * contextual searches (CBS, combined) also keep the CongestionLayer version they were found at,
+ * and stay valid while no edge on the route changed its congestion weight, so an allocation in
+ * another aisle does not throw them away. Beyond capacity the least recently used route goes.
+ *
+ * Lookups and inserts take the cache's lock; the search on a miss runs outside it.
+ */
+final class RouteCache {
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private static final class Route {
+        final int[] path;
+        final long topologyVersion;
+        final long congestionVersion;
+
+        Route(int[] path, long topologyVersion, long congestionVersion) {
+            this.path = path;
+            this.topologyVersion = topologyVersion;
+            this.congestionVersion = congestionVersion;
+        }
+    }
+
+    private final Graph graph;
+    private final Map<Long, Route> routes;
+    private final ThreadLocal<int[]> buffer;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    RouteCache(Graph graph, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.graph = graph;
+        this.routes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Route> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.buffer = ThreadLocal.withInitial(() -> new int[graph.size()]);
+    }
+
+    // Route src .. dest found by the algorithm, or an empty array if dest cannot be reached
+    int[] path(SearchAlgorithm algorithm, int src, int dest) {
+        long start = Metrics.start();
+        long key = key(algorithm, src, dest);
+        long topologyVersion = graph.topologyVersion();
+        boolean contextual = algorithm.isContextual();
+        Route route;
+        synchronized (routes) {
+            route = routes.get(key);
+        }
+        if (route != null && route.topologyVersion == topologyVersion
+                && (!contextual || graph.congestion().unchangedSince(route.congestionVersion, route.path, route.path.length))) {
+            hits.increment();
+            Metrics.record(Metrics.Operation.ROUTE_CACHE_HIT, start);
+            return route.path;
+        }
+
+        long congestionVersion = contextual ? graph.congestion().version() : 0;
+        int[] out = buffer.get();
+        int length = algorithm.path(graph, src, dest, out);
+        int[] path = new int[length];
+        System.arraycopy(out, 0, path, 0, length);
+        synchronized (routes) {
+            routes.put(key, new Route(path, topologyVersion, congestionVersion));
+        }
+        misses.increment();
+        Metrics.record(Metrics.Operation.ROUTE_CACHE_MISS, start);
+        return path;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    int size() {
+        synchronized (routes) {
+            return routes.size();
+        }
+    }
+
+    void clear() {
+        synchronized (routes) {
+            routes.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    // Node ids below 2^29 and up to 64 algorithms fit one long
+    private static long key(SearchAlgorithm algorithm, int src, int dest) {
+        return (long) src << 35 | (long) dest << 6 | algorithm.ordinal();
+    }
+}
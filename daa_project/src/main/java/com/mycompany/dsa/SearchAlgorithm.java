@@ -0,0 +1,53 @@
+package com.mycompany.dsa;
+
+import java.util.List;
+
+/**
+ * The route searches of Graph, selectable by value, in the order of the timing comparison.
+ */
+enum SearchAlgorithm {
+    DIJKSTRA("Dijkstra", false, Graph::dijkstraShortestPath, Graph::dijkstraShortestPath),
+    BELLMAN_FORD("Bellman-Ford", false, Graph::bellmanFordShortestPath, Graph::bellmanFordShortestPath),
+    CONTENT_BASED("CBS", true, Graph::contentBasedSearch, Graph::contentBasedSearch),
+    JUMP_POINT("JPS", false, Graph::jumpPointSearch, Graph::jumpPointSearch),
+    COMBINED("Combined", true, Graph::combinedSearch, Graph::combinedSearch),
+    BIDIRECTIONAL_A_STAR("Bidirectional A*", false, Graph::bidirectionalSearch, Graph::bidirectionalSearch),
+    CONTRACTION_HIERARCHY("CH", false, Graph::hierarchySearch, Graph::hierarchySearch);
+
+    private interface PathSearch {
+        List<Integer> path(Graph graph, int src, int dest);
+    }
+
+    private interface BufferedSearch {
+        int path(Graph graph, int src, int dest, int[] out);
+    }
+
+    private final String label;
+    private final boolean contextual; // Prices edges with the CongestionLayer weights
+    private final PathSearch pathSearch;
+    private final BufferedSearch bufferedSearch;
+
+    SearchAlgorithm(String label, boolean contextual, PathSearch pathSearch, BufferedSearch bufferedSearch) {
+        this.label = label;
+        this.contextual = contextual;
+        this.pathSearch = pathSearch;
+        this.bufferedSearch = bufferedSearch;
+    }
+
+    String label() {
+        return label;
+    }
+
+    boolean isContextual() {
+        return contextual;
+    }
+
+    List<Integer> path(Graph graph, int src, int dest) {
+        return pathSearch.path(graph, src, dest);
+    }
+
+    // Allocation-free variant: the path goes into out, the return value is its length (0 if unreachable)
+    int path(Graph graph, int src, int dest, int[] out) {
+        return bufferedSearch.path(graph, src, dest, out);
+    }
+}
@@ -0,0 +1,136 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+
+/**
+ * Reusable dist/prev/heap buffers for one search at a time.
+ *
+ * begin() starts a new search by bumping a generation number instead of clearing the arrays:
+ * a slot whose stamp is not the current generation reads as "unreached". Contexts are pooled
+ * per thread by forThread(), so a steady-state search allocates nothing.
+ */
+final class SearchContext {
+    static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<SearchContext> POOL = new ThreadLocal<>();
+    private static final ThreadLocal<SearchContext> BACKWARD_POOL = new ThreadLocal<>(); // Second side of a bidirectional search
+
+    private final int[] dist;
+    private final int[] prev;
+    private final int[] stamp;
+    private final int[] targetStamp; // Targets of a multi-target search, stamped like dist
+    private final IndexedMinHeap heap;
+    private int generation;
+    // FIFO, queued flags and path edge counts of the queue-based Bellman-Ford, allocated on first use
+    private int[] queue;
+    private boolean[] queued;
+    private int[] hops;
+
+    SearchContext(int capacity) {
+        dist = new int[capacity];
+        prev = new int[capacity];
+        stamp = new int[capacity];
+        targetStamp = new int[capacity];
+        heap = new IndexedMinHeap(capacity);
+    }
+
+    // Context of the calling thread, replaced only when a larger graph needs more room
+    static SearchContext forThread(int capacity) {
+        return pooled(POOL, capacity);
+    }
+
+    // A second context of the calling thread, for the backward half of a bidirectional search
+    static SearchContext backwardForThread(int capacity) {
+        return pooled(BACKWARD_POOL, capacity);
+    }
+
+    private static SearchContext pooled(ThreadLocal<SearchContext> pool, int capacity) {
+        SearchContext context = pool.get();
+        if (context == null || context.capacity() < capacity) {
+            context = new SearchContext(capacity);
+            pool.set(context);
+        }
+        return context;
+    }
+
+    int capacity() {
+        return dist.length;
+    }
+
+    // Forget the previous search in O(1)
+    SearchContext begin() {
+        heap.clear();
+        if (++generation == 0) { // Wrapped around: stamps from 2^32 searches ago would look current
+            Arrays.fill(stamp, 0);
+            Arrays.fill(targetStamp, 0);
+            generation = 1;
+        }
+        return this;
+    }
+
+    IndexedMinHeap heap() {
+        return heap;
+    }
+
+    int[] queue() {
+        if (queue == null) {
+            queue = new int[capacity()];
+            queued = new boolean[capacity()];
+            hops = new int[capacity()];
+        }
+        return queue;
+    }
+
+    // Whether v is in queue(); left all false by every search that ends normally
+    boolean[] queued() {
+        queue();
+        return queued;
+    }
+
+    int[] hops() {
+        queue();
+        return hops;
+    }
+
+    boolean reached(int v) {
+        return stamp[v] == generation;
+    }
+
+    int dist(int v) {
+        return stamp[v] == generation ? dist[v] : UNREACHED;
+    }
+
+    int prev(int v) {
+        return stamp[v] == generation ? prev[v] : -1;
+    }
+
+    void markTarget(int v) {
+        targetStamp[v] = generation;
+    }
+
+    boolean isTarget(int v) {
+        return targetStamp[v] == generation;
+    }
+
+    void set(int v, int distance, int previous) {
+        dist[v] = distance;
+        prev[v] = previous;
+        stamp[v] = generation;
+    }
+
+    // Write the path src .. dest into out and return its length
+    int writePath(int dest, int[] out) {
+        int length = 0;
+        for (int at = dest; at != -1; at = prev(at)) {
+            length++;
+        }
+        if (length > out.length) {
+            throw new IllegalArgumentException("Path of " + length + " nodes does not fit a buffer of " + out.length);
+        }
+        int i = length;
+        for (int at = dest; at != -1; at = prev(at)) {
+            out[--i] = at;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mycompany.dsa;
+
+/**
+ * Two-level bitset that finds its lowest set bit without scanning empty words.
+ *
+ * A summary word holds one bit per 64-bit word that is not empty, so first() reads at most
+ * size / 4096 summary words plus one data word, and next() walks the same summary from its
+ * starting word.
+ */
+final class SkipBitSet {
+    private final int size;
+    private final long[] words;
+    private final long[] summary;
+    private int count;
+
+    SkipBitSet(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Number of set bits
+    int count() {
+        return count;
+    }
+
+    boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    void set(int i) {
+        int w = i >>> 6;
+        long before = words[w];
+        long after = before | (1L << i);
+        if (after != before) {
+            words[w] = after;
+            summary[w >>> 6] |= 1L << w;
+            count++;
+        }
+    }
+
+    void clear(int i) {
+        int w = i >>> 6;
+        long before = words[w];
+        long after = before & ~(1L << i);
+        if (after != before) {
+            words[w] = after;
+            if (after == 0) {
+                summary[w >>> 6] &= ~(1L << w);
+            }
+            count--;
+        }
+    }
+
+    // Lowest set bit, or -1 if the set is empty
+    int first() {
+        for (int s = 0; s < summary.length; s++) {
+            if (summary[s] != 0) {
+                int w = (s << 6) + Long.numberOfTrailingZeros(summary[s]);
+                return (w << 6) + Long.numberOfTrailingZeros(words[w]);
+            }
+        }
+        return -1;
+    }
+
+    // Lowest set bit at or after from, or -1 if there is none
+    int next(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        if (word != 0) {
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        int s = (w + 1) >>> 6;
+        if (s >= summary.length) {
+            return -1;
+        }
+        long nonEmpty = summary[s] & (-1L << (w + 1)); // Words after w only
+        while (nonEmpty == 0) {
+            if (++s >= summary.length) {
+                return -1;
+            }
+            nonEmpty = summary[s];
+        }
+        int next = (s << 6) + Long.numberOfTrailingZeros(nonEmpty);
+        return (next << 6) + Long.numberOfTrailingZeros(words[next]);
+    }
+}
@@ -0,0 +1,67 @@
+package com.mycompany.dsa;
+
+/**
+ * Snapshot of one bay, returned by ParkingEngine.query and ParkingEngine.extend.
+ */
+public final class SpotStatus {
+    private final int spot;
+    private final VehicleClass vehicleClass;
+    private final boolean allocated;
+    private final boolean longTerm;
+    private final boolean stay;
+    private final boolean expired;
+    private final int overstayedSeconds;
+
+    SpotStatus(Node node, boolean stay, boolean expired, int overstayedSeconds) {
+        this.spot = node.id();
+        this.vehicleClass = node.isTwoWheeler() ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+        this.allocated = node.isAllocated();
+        this.longTerm = node.isLongTerm();
+        this.stay = stay;
+        this.expired = expired;
+        this.overstayedSeconds = overstayedSeconds;
+    }
+
+    public int spot() {
+        return spot;
+    }
+
+    public VehicleClass vehicleClass() {
+        return vehicleClass;
+    }
+
+    public boolean isAllocated() {
+        return allocated;
+    }
+
+    public boolean isLongTerm() {
+        return longTerm;
+    }
+
+    // The vehicle chose to stay past its time limit
+    public boolean isStay() {
+        return stay;
+    }
+
+    // The time limit of the allocation has run out
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public int overstayedSeconds() {
+        return overstayedSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "SpotStatus{" +
+                "spot=" + spot +
+                ", vehicleClass=" + vehicleClass +
+                ", allocated=" + allocated +
+                ", longTerm=" + longTerm +
+                ", stay=" + stay +
+                ", expired=" + expired +
+                ", overstayedSeconds=" + overstayedSeconds +
+                '}';
+    }
+}
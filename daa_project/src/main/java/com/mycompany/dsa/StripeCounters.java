@@ -0,0 +1,68 @@
+package com.mycompany.dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Counters of one lot stripe, padded to a cache line of their own.
+ *
+ * The padding lives in super- and subclasses because the JVM is free to reorder the fields
+ * of a single class.
+ */
+final class StripeCounters extends StripeCountersValues {
+    private long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    private static final VarHandle FREE;
+    private static final VarHandle ALLOCATIONS;
+    private static final VarHandle BORROWED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FREE = lookup.findVarHandle(StripeCountersValues.class, "free", long.class);
+            ALLOCATIONS = lookup.findVarHandle(StripeCountersValues.class, "allocations", long.class);
+            BORROWED = lookup.findVarHandle(StripeCountersValues.class, "borrowed", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    StripeCounters(long free) {
+        this.free = free;
+    }
+
+    // A bay of this stripe was claimed; borrowed when the request was routed here from another zone
+    void allocated(boolean borrowedBay) {
+        FREE.getAndAdd(this, -1L);
+        ALLOCATIONS.getAndAdd(this, 1L);
+        if (borrowedBay) {
+            BORROWED.getAndAdd(this, 1L);
+        }
+    }
+
+    void released() {
+        FREE.getAndAdd(this, 1L);
+    }
+
+    long free() {
+        return (long) FREE.getVolatile(this);
+    }
+
+    long allocations() {
+        return (long) ALLOCATIONS.getVolatile(this);
+    }
+
+    long borrowed() {
+        return (long) BORROWED.getVolatile(this);
+    }
+}
+
+abstract class StripeCountersPadding {
+    private long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class StripeCountersValues extends StripeCountersPadding {
+    volatile long free;
+    volatile long allocations;
+    volatile long borrowed;
+}
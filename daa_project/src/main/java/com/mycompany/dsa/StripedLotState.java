@@ -0,0 +1,217 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+
+/**
+ * Lot state split into independent stripes, so gates on different cores rarely touch the same
+ * cache lines.
+ *
+ * Bays are first divided into the term zones of EntranceRanking, the same ones the
+ * single-threaded FreeSpotIndex allocates by. Each zone is dealt round-robin (by distance from
+ * the closest entrance) into stripesPerZone stripes, which keeps near and far bays in every
+ * stripe.
+ *
+ * A stripe owns its bays outright: its own claim bits, its own per-entrance AtomicSkipBitSets
+ * over its bays ranked by drive cost, and its own padded counters. A request goes to the
+ * caller's home stripe in its zone, then to the other stripes of that zone, then to the other
+ * term zone of the same vehicle class. The bitsets only point at candidates: a gate takes the
+ * lowest free-looking rank, tries to claim that bay, and on a lost race drops the stale bit and
+ * moves on. No bay can be handed out twice, whatever the bitsets say.
+ */
+final class StripedLotState {
+    static final int ZONES = EntranceRanking.ZONES;
+
+    private final EntranceRanking ranking;
+    private final int stripesPerZone;
+    private final int[] stripeOf; // Node id -> stripe, or -1 for entrances, exits and unreachable bays
+    private final int[] localIndex; // Node id -> index within its stripe
+    private final Stripe[] stripes;
+
+    StripedLotState(Graph graph, int stripesPerZone) {
+        if (stripesPerZone < 1) {
+            throw new IllegalArgumentException("stripesPerZone must be at least 1: " + stripesPerZone);
+        }
+        this.ranking = new EntranceRanking(graph);
+        this.stripesPerZone = stripesPerZone;
+        int V = graph.size();
+        stripeOf = new int[V];
+        localIndex = new int[V];
+        Arrays.fill(stripeOf, -1);
+
+        int[] stripeSize = new int[ZONES * stripesPerZone];
+        for (int c = 0; c < EntranceRanking.CLASSES; c++) {
+            int[] bays = ranking.closestFirst(c);
+            int shortTerm = (bays.length + 1) / 2;
+            for (int i = 0; i < bays.length; i++) {
+                int bay = bays[i];
+                int dealt = i >= shortTerm ? i - shortTerm : i;
+                int s = ranking.zoneOf(bay) * stripesPerZone + dealt % stripesPerZone;
+                stripeOf[bay] = s;
+                localIndex[bay] = stripeSize[s]++;
+            }
+        }
+
+        NodeStore store = graph.store();
+        stripes = new Stripe[stripeSize.length];
+        for (int s = 0; s < stripes.length; s++) {
+            stripes[s] = new Stripe(stripeSize[s], ranking.entranceCount());
+        }
+        for (int v = 0; v < V; v++) {
+            if (stripeOf[v] != -1) {
+                stripes[stripeOf[v]].bays[localIndex[v]] = v;
+            }
+        }
+        for (int e = 0; e < ranking.entranceCount(); e++) {
+            for (int c = 0; c < EntranceRanking.CLASSES; c++) {
+                for (int r = 0; r < ranking.size(e, c); r++) {
+                    int bay = ranking.bayAt(e, c, r);
+                    stripes[stripeOf[bay]].append(e, localIndex[bay]);
+                }
+            }
+        }
+        for (Stripe stripe : stripes) {
+            stripe.fill(store);
+        }
+    }
+
+    EntranceRanking ranking() {
+        return ranking;
+    }
+
+    int stripesPerZone() {
+        return stripesPerZone;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    // Stripe of the bay, or -1 if it is not a bay any entrance can reach
+    int stripeOf(int bay) {
+        return stripeOf[bay];
+    }
+
+    StripeCounters counters(int stripe) {
+        return stripes[stripe].counters;
+    }
+
+    boolean isClaimed(int bay) {
+        int s = stripeOf[bay];
+        return s != -1 && stripes[s].claims.isClaimed(localIndex[bay]);
+    }
+
+    /**
+     * Claim the nearest free bay for the entrance, starting from stripe home of the request's
+     * zone, or return -1 if the vehicle class has no free bay left.
+     */
+    int claim(int entranceId, boolean isTwoWheeler, boolean isLongTerm, int home) {
+        int e = ranking.entranceSlot(entranceId);
+        int zone = EntranceRanking.zone(EntranceRanking.vehicleClass(isTwoWheeler), isLongTerm);
+        int first = Math.floorMod(home, stripesPerZone);
+        for (int pass = 0; pass < 2; pass++) {
+            int z = zone ^ pass; // Own zone first, then the other term of the same class
+            for (int i = 0; i < stripesPerZone; i++) {
+                Stripe stripe = stripes[z * stripesPerZone + (first + i) % stripesPerZone];
+                int bay = stripe.claim(e);
+                if (bay != -1) {
+                    stripe.counters.allocated(z != zone);
+                    return bay;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Give a claimed bay back; false if it was not claimed
+    boolean release(int bay) {
+        int s = stripeOf[bay];
+        if (s == -1 || !stripes[s].release(localIndex[bay])) {
+            return false;
+        }
+        stripes[s].counters.released();
+        return true;
+    }
+
+    private static final class Stripe {
+        final int[] bays; // Local index -> node id
+        final int[][] order; // [entrance] -> local indices by drive cost
+        final int[][] rank; // [entrance][local index] -> position in order, or -1
+        final int[] orderSize;
+        final AtomicSkipBitSet[] free; // [entrance], bit r set while order[e][r] looks free
+        final BayClaims claims;
+        StripeCounters counters;
+
+        Stripe(int size, int entrances) {
+            bays = new int[size];
+            order = new int[entrances][size];
+            rank = new int[entrances][size];
+            orderSize = new int[entrances];
+            free = new AtomicSkipBitSet[entrances];
+            claims = new BayClaims(size);
+            for (int[] ranks : rank) {
+                Arrays.fill(ranks, -1);
+            }
+        }
+
+        void append(int e, int local) {
+            rank[e][local] = orderSize[e];
+            order[e][orderSize[e]++] = local;
+        }
+
+        void fill(NodeStore store) {
+            int freeBays = 0;
+            for (int local = 0; local < bays.length; local++) {
+                if (store.isAllocated(bays[local])) {
+                    claims.tryClaim(local);
+                } else {
+                    freeBays++;
+                }
+            }
+            counters = new StripeCounters(freeBays);
+            for (int e = 0; e < free.length; e++) {
+                free[e] = new AtomicSkipBitSet(orderSize[e]);
+                for (int r = 0; r < orderSize[e]; r++) {
+                    if (!claims.isClaimed(order[e][r])) {
+                        free[e].set(r);
+                    }
+                }
+            }
+        }
+
+        int claim(int e) {
+            AtomicSkipBitSet bits = free[e];
+            while (true) {
+                int r = bits.first();
+                if (r == -1) {
+                    return -1;
+                }
+                int local = order[e][r];
+                if (claims.tryClaim(local)) {
+                    for (int other = 0; other < free.length; other++) {
+                        if (rank[other][local] != -1) {
+                            free[other].clear(rank[other][local]);
+                        }
+                    }
+                    return bays[local];
+                }
+                // Another gate owns it: drop the stale bit, unless the bay was released meanwhile
+                bits.clear(r);
+                if (!claims.isClaimed(local)) {
+                    bits.set(r);
+                }
+            }
+        }
+
+        boolean release(int local) {
+            if (!claims.release(local)) {
+                return false;
+            }
+            for (int e = 0; e < free.length; e++) {
+                if (rank[e][local] != -1) {
+                    free[e].set(rank[e][local]);
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mycompany.dsa;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel over bay ids, in the style of the Linux kernel timer wheel.
+ *
+ * LEVELS wheels of 64 slots each: level 0 holds deadlines less than 64 ticks away, one slot per
+ * tick, and every level above covers 64 times the span of the one below. Whenever the level-0
+ * cursor wraps, the current slot of the next level is cascaded down. Each bay is in at most one
+ * slot, linked through int arrays indexed by bay id, so schedule() and cancel() are O(1) and
+ * allocate nothing. Deadlines beyond the top level are parked in its farthest slot and placed
+ * again on cascade.
+ *
+ * Not thread-safe.
+ */
+final class TimingWheel {
+    static final int LEVELS = 4;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final int[] head; // [level * SLOTS + slot] -> first bay, or -1
+    private final int[] next;
+    private final int[] prev;
+    private final int[] slotOf; // Bay -> slot index in head, or -1 if not scheduled
+    private final long[] deadline; // Bay -> deadline tick
+    private long now;
+    private int count;
+
+    TimingWheel(int capacity, long startTick) {
+        head = new int[LEVELS * SLOTS];
+        next = new int[capacity];
+        prev = new int[capacity];
+        slotOf = new int[capacity];
+        deadline = new long[capacity];
+        Arrays.fill(head, -1);
+        Arrays.fill(slotOf, -1);
+        now = startTick;
+    }
+
+    long now() {
+        return now;
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean isScheduled(int bay) {
+        return slotOf[bay] != -1;
+    }
+
+    // (Re)schedule the bay; deadlines that already passed fire on the next tick
+    void schedule(int bay, long tick) {
+        if (slotOf[bay] != -1) {
+            unlink(bay);
+        }
+        deadline[bay] = Math.max(tick, now + 1);
+        place(bay);
+    }
+
+    void cancel(int bay) {
+        if (slotOf[bay] != -1) {
+            unlink(bay);
+        }
+    }
+
+    /**
+     * Move the wheel to tick, writing every bay whose deadline passed into expired and
+     * returning how many there are. expired must hold size() bays.
+     */
+    int advanceTo(long tick, int[] expired) {
+        int n = 0;
+        while (now < tick) {
+            if (count == 0) {
+                now = tick;
+                break;
+            }
+            now++;
+            cascade();
+            int slot = (int) (now & MASK);
+            for (int bay = head[slot]; bay != -1; ) {
+                int following = next[bay];
+                unlink(bay);
+                expired[n++] = bay;
+                bay = following;
+            }
+        }
+        return n;
+    }
+
+    // Pull the slots the cursor just entered on the upper levels down to where they belong now
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if (((now >>> (BITS * (level - 1))) & MASK) != 0) {
+                return;
+            }
+            int slot = level * SLOTS + (int) ((now >>> (BITS * level)) & MASK);
+            int bay = head[slot];
+            head[slot] = -1;
+            while (bay != -1) {
+                int following = next[bay];
+                slotOf[bay] = -1;
+                count--;
+                place(bay);
+                bay = following;
+            }
+        }
+    }
+
+    private void place(int bay) {
+        long delta = deadline[bay] - now;
+        int slot;
+        if (delta < SLOTS) {
+            slot = (int) (deadline[bay] & MASK);
+        } else {
+            int level = 1;
+            while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+                level++;
+            }
+            long at = delta >= 1L << (BITS * LEVELS) ? now + (1L << (BITS * LEVELS)) - 1 : deadline[bay];
+            slot = level * SLOTS + (int) ((at >>> (BITS * level)) & MASK);
+        }
+        int first = head[slot];
+        next[bay] = first;
+        prev[bay] = -1;
+        if (first != -1) {
+            prev[first] = bay;
+        }
+        head[slot] = bay;
+        slotOf[bay] = slot;
+        count++;
+    }
+
+    private void unlink(int bay) {
+        int slot = slotOf[bay];
+        if (prev[bay] != -1) {
+            next[prev[bay]] = next[bay];
+        } else {
+            head[slot] = next[bay];
+        }
+        if (next[bay] != -1) {
+            prev[next[bay]] = prev[bay];
+        }
+        slotOf[bay] = -1;
+        count--;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mycompany.dsa;
+
+/**
+ * Vehicle classes with their own block of bays.
+ */
+public enum VehicleClass {
+    FOUR_WHEELER,
+    TWO_WHEELER;
+
+    public boolean isTwoWheeler() {
+        return this == TWO_WHEELER;
+    }
+}
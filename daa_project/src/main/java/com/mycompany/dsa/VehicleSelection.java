@@ -1,21 +1,20 @@
 package com.mycompany.dsa;
 
 import java.awt.*;
-import java.util.Arrays;
 import java.util.List;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 
 public class VehicleSelection extends JFrame {
+    private static final int MAX_TIMING_ROWS = 100; // Oldest rows are dropped beyond this
     JLabel label, termLabel, entranceLabel;
     JRadioButton fourWheeler, twoWheeler, longTerm, shortTerm, entrance1, entrance2;
     JButton submit, showTableButton;
-    private final List<Node> nodes;
-    private final List<Edge> edges;
+    private final ParkingEngine engine;
     private final DefaultTableModel tableModel;
     private int selectedEntrance;
 
-    public VehicleSelection(List<Node> nodes, List<Edge> edges) {
+    public VehicleSelection(ParkingEngine engine) {
         setLayout(new GridLayout(12, 1));
 
         // Vehicle type selection
@@ -62,13 +61,16 @@ public class VehicleSelection extends JFrame {
         add(submit);
         add(showTableButton);
 
-        this.nodes = nodes;
-        this.edges = edges;
+        this.engine = engine;
 
         // Initialize the timing table
-        tableModel = new DefaultTableModel(
-                new String[]{"Node Allocated", "Dijkstra Time (ns)", "Bellman-Ford Time (ns)", "CBS Time (ns)", "JPS Time (ns)", "Combined Time (ns)"}, 0
-        );
+        SearchAlgorithm[] algorithms = SearchAlgorithm.values();
+        String[] columns = new String[algorithms.length + 1];
+        columns[0] = "Node Allocated";
+        for (int i = 0; i < algorithms.length; i++) {
+            columns[i + 1] = algorithms[i].label() + " Time (ns)";
+        }
+        tableModel = new DefaultTableModel(columns, 0);
 
         setSize(300, 500);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -95,107 +97,46 @@ public class VehicleSelection extends JFrame {
         // Determine the selected entrance
         selectedEntrance = entrance1.isSelected() ? 100 : 101;
 
-        // Allocate nearest parking spot
-        int start = fourWheeler.isSelected() ? 0 : 50; // Four-wheelers: 0-49, Two-wheelers: 50-99
-        int end = fourWheeler.isSelected() ? 49 : 99;
+        VehicleClass vehicleClass = twoWheeler.isSelected() ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+        ParkingTerm term = longTerm.isSelected() ? ParkingTerm.LONG_TERM : ParkingTerm.SHORT_TERM;
 
-        int nearestSpot = allocateNearestNode(nodes, start, end, selectedEntrance);
-        if (nearestSpot == -1) {
+        // Allocate the parking spot of the vehicle's class with the lowest drive cost
+        AllocationResult result = engine.allocate(vehicleClass, term, selectedEntrance);
+        if (!result.isAllocated()) {
             JOptionPane.showMessageDialog(null, "No available parking spots.");
             return;
         }
-
-        Node spotNode = nodes.get(nearestSpot);
-
-        // Handle already allocated spot
-        if (spotNode.isAllocated) {
-            int response = JOptionPane.showConfirmDialog(
-                null,
-                "Spot " + nearestSpot + " is already allocated. Would you like to deallocate it?",
-                "Spot Already Allocated",
-                JOptionPane.YES_NO_OPTION
-            );
-
-            if (response == JOptionPane.YES_OPTION) {
-                // Deallocate the spot and show overstayed time
-                deallocateNode(spotNode, nearestSpot);
-                return;
-            } else {
-                // Cancel operation
-                JOptionPane.showMessageDialog(null, "Spot allocation remains unchanged.");
-                return;
-            }
-        }
-
-        // Allocate the spot
-        spotNode.isAllocated = true;
-        spotNode.isLongTerm = longTerm.isSelected();
-        String term = longTerm.isSelected() ? "Long-Term" : "Short-Term";
-        Color allocatedColor = longTerm.isSelected() ? Color.PINK : Color.GREEN;
+        int nearestSpot = result.spot();
+        String termLabel = term.isLongTerm() ? "Long-Term" : "Short-Term";
+        Color allocatedColor = term.isLongTerm() ? Color.PINK : Color.GREEN;
 
         // Run algorithms and measure times
-        Graph graph = new Graph(nodes.size(), nodes);
-        for (Edge edge : edges) {
-            graph.addEdge(edge.u, edge.v, edge.weight);
+        Graph graph = engine.lotGraph().graph();
+
+        SearchAlgorithm[] algorithms = SearchAlgorithm.values();
+        Object[] row = new Object[algorithms.length + 1];
+        row[0] = nearestSpot;
+        for (int i = 0; i < algorithms.length; i++) {
+            SearchAlgorithm algorithm = algorithms[i];
+            row[i + 1] = measureTime(() -> algorithm.path(graph, selectedEntrance, nearestSpot));
         }
 
-        long dijkstraTime = measureTime(() -> graph.dijkstraShortestPath(selectedEntrance, nearestSpot));
-        long bellmanFordTime = measureTime(() -> graph.bellmanFordShortestPath(selectedEntrance, nearestSpot));
-        long cbsTime = measureTime(() -> graph.combinedSearch(selectedEntrance, nearestSpot));
-        long jpsTime = measureTime(() -> graph.jumpPointSearch(selectedEntrance, nearestSpot));
-        long combinedTime = measureTime(() -> graph.combinedSearch(selectedEntrance, nearestSpot));
-
         // Add timing results to the table
-        tableModel.addRow(new Object[]{nearestSpot, dijkstraTime, bellmanFordTime, cbsTime, jpsTime, combinedTime});
+        tableModel.addRow(row);
+        while (tableModel.getRowCount() > MAX_TIMING_ROWS) {
+            tableModel.removeRow(0);
+        }
 
         // Notify user
-        JOptionPane.showMessageDialog(null, "Spot " + nearestSpot + " allocated near Entrance " + selectedEntrance + " (" + term + ").");
+        JOptionPane.showMessageDialog(null, "Spot " + nearestSpot + " allocated near Entrance " + selectedEntrance + " (" + termLabel + ").");
 
-        // Display parking lot visualization
-        List<Integer> shortestPath = graph.dijkstraShortestPath(selectedEntrance, nearestSpot); // Example using Dijkstra
+        // Display parking lot visualization with the route from the entrance's stored tree
         AllocationDisplay allocationDisplay = AllocationDisplay.getInstance(
-                nodes, edges, shortestPath, nearestSpot, allocatedColor, longTerm.isSelected()
+                engine, result.path(), nearestSpot, allocatedColor, term.isLongTerm()
         );
         allocationDisplay.setVisible(true);
     }
 
-    private void deallocateNode(Node spotNode, int nearestSpot) {
-        int overstayedTime = spotNode.overstayedTime; // Retrieve overstayed time before reset
-        spotNode.reset(); // Reset the node's properties
-
-        // Determine closest exit
-        Graph graph = new Graph(nodes.size(), nodes);
-        for (Edge edge : edges) {
-            graph.addEdge(edge.u, edge.v, edge.weight);
-        }
-        List<Integer> exitNodes = Arrays.asList(102, 103); // IDs for exits
-        int closestExit = -1;
-        int minDistance = Integer.MAX_VALUE;
-
-        for (int exit : exitNodes) {
-            int distance = graph.combinedSearch(nearestSpot, exit).size();
-            if (distance > 0 && distance < minDistance) {
-                minDistance = distance;
-                closestExit = exit;
-            }
-        }
-
-        String exitMessage = (closestExit != -1) ? "Closest exit is Exit " + (closestExit == 102 ? "1" : "2") : "No valid exit found.";
-
-        // Repaint the allocation display
-        AllocationDisplay.getInstance(nodes, edges, null, -1, Color.GRAY, false).repaint();
-
-        // Show a message dialog with overstayed time and closest exit
-        JOptionPane.showMessageDialog(
-                null,
-                "Parking spot " + nearestSpot + " deallocated successfully.\n" +
-                "Overstayed time: " + (overstayedTime > 0 ? overstayedTime + " seconds" : "None.") + "\n" +
-                exitMessage,
-                "Deallocation Successful",
-                JOptionPane.INFORMATION_MESSAGE
-        );
-    }
-
     private void displayTable() {
         JFrame tableFrame = new JFrame("Algorithm Timing Results");
         JTable table = new JTable(tableModel);
@@ -203,19 +144,30 @@ public class VehicleSelection extends JFrame {
 
         tableFrame.setLayout(new BorderLayout());
         tableFrame.add(scrollPane, BorderLayout.CENTER);
-        tableFrame.setSize(600, 300);
+
+        tableFrame.setSize(800, 300);
+
+        // Percentiles over every run so far, when started with -Ddsa.metrics=true
+        if (Metrics.ENABLED) {
+            JTextArea metrics = new JTextArea(Metrics.text());
+            metrics.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+            metrics.setEditable(false);
+            tableFrame.add(new JScrollPane(metrics), BorderLayout.SOUTH);
+            tableFrame.setSize(1100, 500);
+        }
         tableFrame.setLocationRelativeTo(null);
         tableFrame.setVisible(true);
     }
 
+    // The original pixel-distance scan over an id range, kept only as FreeSpotBenchmark's baseline
     public static int allocateNearestNode(List<Node> nodes, int start, int end, int entranceId) {
         int minDistance = Integer.MAX_VALUE;
         int nearestNode = -1;
 
         for (int i = start; i <= end; i++) {
-            if (!nodes.get(i).isAllocated) {
-                int distance = Math.abs(nodes.get(i).x - nodes.get(entranceId).x) +
-                        Math.abs(nodes.get(i).y - nodes.get(entranceId).y);
+            if (!nodes.get(i).isAllocated()) {
+                int distance = Math.abs(nodes.get(i).x() - nodes.get(entranceId).x()) +
+                        Math.abs(nodes.get(i).y() - nodes.get(entranceId).y());
 
                 if (distance < minDistance) {
                     minDistance = distance;
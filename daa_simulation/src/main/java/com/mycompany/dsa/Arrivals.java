@@ -0,0 +1,164 @@
+package com.mycompany.dsa;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Vehicles of one simulation run, sorted by arrival time and stored column-wise.
+ *
+ * Either drawn from a Poisson process or read from a trace file with one vehicle per line:
+ * arrivalSeconds,entrance,vehicleClass,term,dwellSeconds, e.g. "12.5,100,TWO_WHEELER,SHORT_TERM,8".
+ * Blank lines and lines starting with # are skipped.
+ */
+final class Arrivals {
+    // Share of long-term vehicles, and mean dwell as a share of the term's time limit
+    static final double LONG_TERM_SHARE = 0.3;
+    static final double MEAN_DWELL_SHARE = 0.8;
+    static final int MAX_TRACE = 1 << 24;
+
+    private int size;
+    private long[] atMillis;
+    private int[] entrance;
+    private VehicleClass[] vehicleClass;
+    private ParkingTerm[] term;
+    private long[] dwellMillis;
+
+    private Arrivals(int capacity) {
+        atMillis = new long[capacity];
+        entrance = new int[capacity];
+        vehicleClass = new VehicleClass[capacity];
+        term = new ParkingTerm[capacity];
+        dwellMillis = new long[capacity];
+    }
+
+    /**
+     * count vehicles arriving at perSecond on average, at uniformly chosen entrances. Dwell is
+     * exponential around MEAN_DWELL_SHARE of the term's limit, so a share of vehicles overstays.
+     */
+    static Arrivals poisson(int count, double perSecond, int[] entrances, long seed) {
+        Random random = new Random(seed);
+        Arrivals arrivals = new Arrivals(count);
+        double at = 0;
+        for (int i = 0; i < count; i++) {
+            at += exponential(random, 1000 / perSecond);
+            ParkingTerm term = random.nextDouble() < LONG_TERM_SHARE ? ParkingTerm.LONG_TERM : ParkingTerm.SHORT_TERM;
+            VehicleClass vehicleClass = random.nextBoolean() ? VehicleClass.TWO_WHEELER : VehicleClass.FOUR_WHEELER;
+            long dwell = (long) exponential(random, term.timeLimitSeconds() * 1000 * MEAN_DWELL_SHARE);
+            arrivals.add((long) at, entrances[random.nextInt(entrances.length)], vehicleClass, term, dwell);
+        }
+        return arrivals;
+    }
+
+    static Arrivals readTrace(Path trace) throws IOException {
+        Arrivals arrivals = new Arrivals(1024);
+        try (BufferedReader reader = Files.newBufferedReader(trace)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 5) {
+                    throw new IOException(trace + ":" + lineNumber + ": expected 5 fields, got " + fields.length);
+                }
+                try {
+                    arrivals.add((long) (Double.parseDouble(fields[0].trim()) * 1000),
+                            Integer.parseInt(fields[1].trim()),
+                            VehicleClass.valueOf(fields[2].trim()),
+                            ParkingTerm.valueOf(fields[3].trim()),
+                            (long) (Double.parseDouble(fields[4].trim()) * 1000));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(trace + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        if (arrivals.size > MAX_TRACE) {
+            throw new IOException(trace + ": more than " + MAX_TRACE + " vehicles");
+        }
+        arrivals.sortByArrival();
+        return arrivals;
+    }
+
+    private static double exponential(Random random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    private void add(long at, int entranceId, VehicleClass vehicle, ParkingTerm parkingTerm, long dwell) {
+        if (size == atMillis.length) {
+            int capacity = size * 2;
+            atMillis = Arrays.copyOf(atMillis, capacity);
+            entrance = Arrays.copyOf(entrance, capacity);
+            vehicleClass = Arrays.copyOf(vehicleClass, capacity);
+            term = Arrays.copyOf(term, capacity);
+            dwellMillis = Arrays.copyOf(dwellMillis, capacity);
+        }
+        atMillis[size] = at;
+        entrance[size] = entranceId;
+        vehicleClass[size] = vehicle;
+        term[size] = parkingTerm;
+        dwellMillis[size] = dwell;
+        size++;
+    }
+
+    // Traces need not be ordered; keys pack (arrival, line) so equal times keep file order
+    private void sortByArrival() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (atMillis[i] << 24) | i;
+        }
+        Arrays.sort(keys);
+        Arrivals sorted = new Arrivals(size);
+        for (long key : keys) {
+            int i = (int) (key & 0xFFFFFF);
+            sorted.add(atMillis[i], entrance[i], vehicleClass[i], term[i], dwellMillis[i]);
+        }
+        atMillis = sorted.atMillis;
+        entrance = sorted.entrance;
+        vehicleClass = sorted.vehicleClass;
+        term = sorted.term;
+        dwellMillis = sorted.dwellMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long atMillis(int i) {
+        return atMillis[i];
+    }
+
+    int entrance(int i) {
+        return entrance[i];
+    }
+
+    VehicleClass vehicleClass(int i) {
+        return vehicleClass[i];
+    }
+
+    ParkingTerm term(int i) {
+        return term[i];
+    }
+
+    long dwellMillis(int i) {
+        return dwellMillis[i];
+    }
+
+    long lastArrivalMillis() {
+        return size == 0 ? 0 : atMillis[size - 1];
+    }
+
+    long lastDepartureMillis() {
+        long last = 0;
+        for (int i = 0; i < size; i++) {
+            last = Math.max(last, atMillis[i] + dwellMillis[i]);
+        }
+        return last;
+    }
+}
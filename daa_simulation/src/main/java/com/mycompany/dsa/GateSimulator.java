@@ -0,0 +1,207 @@
+package com.mycompany.dsa;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for the allocation engine: one virtual thread per simulated vehicle.
+ *
+ * Each vehicle arrives at an entrance at its scheduled (scaled) time, asks a concurrent
+ * ParkingEngine for the nearest free bay, parks for its dwell time, asks to stay when the dwell
+ * runs past its term's limit, and leaves through the nearest exit reported on release. A ticker
+ * thread collects expired time limits from the engine's timing wheel, and a sampler thread
+ * records the occupancy curve.
+ *
+ * Usage: java -jar target/simulator.jar [vehicles] [side] [arrivalsPerSecond] [timeScale] [traceFile]
+ * Defaults: 100000 vehicles on a 100x100 lot, 800 arrivals per simulated second, 50 simulated
+ * seconds per wall second, Poisson arrivals. With a trace file, vehicles and arrivalsPerSecond
+ * are ignored. The lot has two entrances and two exits, like DSA. With -Ddsa.metrics=true the
+ * engine's latency histograms and search counters are printed as well.
+ */
+public class GateSimulator {
+    private static final int OCCUPANCY_SAMPLES = 60;
+
+    private final LotLayout layout;
+    private final Arrivals arrivals;
+    private final SimClock clock;
+    private final ParkingEngine engine;
+
+    private final long[] latencyNanos;
+    private final AtomicInteger occupied = new AtomicInteger();
+    private final LongAdder arrived = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overstayed = new LongAdder();
+    private final LongAdder overstaySeconds = new LongAdder();
+    private final LongAdder failedReleases = new LongAdder();
+    private final AtomicLongArray exitUse;
+    private long expiries;
+    private long expiryBatches;
+    private long maxDispatchLagMillis;
+    private volatile boolean finished;
+
+    GateSimulator(LotLayout layout, Arrivals arrivals, double timeScale) {
+        this.layout = layout;
+        this.arrivals = arrivals;
+        this.clock = new SimClock(timeScale);
+        int stripes = Runtime.getRuntime().availableProcessors();
+        this.engine = ParkingEngine.concurrent(layout.nodes, layout.edges, stripes, clock::nowMillis);
+        this.latencyNanos = new long[arrivals.size()];
+        this.exitUse = new AtomicLongArray(layout.nodes.size());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        double perSecond = args.length > 2 ? Double.parseDouble(args[2]) : 800;
+        double timeScale = args.length > 3 ? Double.parseDouble(args[3]) : 50;
+
+        LotLayout layout = LotLayout.square(side, 2);
+        Arrivals arrivals = args.length > 4
+                ? Arrivals.readTrace(Path.of(args[4]))
+                : Arrivals.poisson(vehicles, perSecond, layout.entrances, 42L);
+        System.out.printf("%dx%d lot (%d bays, entrances %s, exits %s), %,d vehicles over %.0f simulated s, time x%.0f%n",
+                side, side, layout.bayCount(), Arrays.toString(layout.entrances), Arrays.toString(layout.exits),
+                arrivals.size(), arrivals.lastArrivalMillis() / 1000.0, timeScale);
+
+        new GateSimulator(layout, arrivals, timeScale).run();
+    }
+
+    void run() throws InterruptedException {
+        long span = Math.max(1000, arrivals.lastArrivalMillis());
+        long sampleMillis = Math.max(100, span / OCCUPANCY_SAMPLES);
+        long[][] curve = new long[4][(int) (arrivals.lastDepartureMillis() / sampleMillis) + 2]; // time, occupied, arrived, rejected
+        int[] samples = new int[1];
+
+        Thread ticker = Thread.ofPlatform().name("expiry-ticker").unstarted(this::tick);
+        Thread sampler = Thread.ofPlatform().name("occupancy-sampler").unstarted(() -> {
+            for (long at = 0; !finished && samples[0] < curve[0].length; at += sampleMillis) {
+                clock.sleepUntil(at);
+                int k = samples[0]++;
+                curve[0][k] = at;
+                curve[1][k] = occupied.get();
+                curve[2][k] = arrived.sum();
+                curve[3][k] = rejected.sum();
+            }
+        });
+
+        clock.start();
+        ticker.start();
+        sampler.start();
+        long wallStart = System.nanoTime();
+        long wallArrived;
+        try (ExecutorService gates = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < arrivals.size(); i++) {
+                long at = arrivals.atMillis(i);
+                clock.sleepUntil(at);
+                maxDispatchLagMillis = Math.max(maxDispatchLagMillis, clock.nowMillis() - at);
+                int vehicle = i;
+                gates.execute(() -> drive(vehicle));
+            }
+            wallArrived = System.nanoTime();
+        } // Waits for the last vehicle to leave
+        long wallEnd = System.nanoTime();
+        finished = true;
+        ticker.join();
+        sampler.join();
+
+        report((wallArrived - wallStart) / 1e9, (wallEnd - wallStart) / 1e9, curve, samples[0]);
+    }
+
+    private void drive(int i) {
+        VehicleClass vehicleClass = arrivals.vehicleClass(i);
+        ParkingTerm term = arrivals.term(i);
+        arrived.increment();
+
+        long start = System.nanoTime();
+        AllocationResult result = engine.allocate(vehicleClass, term, arrivals.entrance(i));
+        latencyNanos[i] = System.nanoTime() - start;
+        if (!result.isAllocated()) {
+            rejected.increment();
+            return;
+        }
+        occupied.incrementAndGet();
+
+        long parkedAt = arrivals.atMillis(i);
+        long limit = term.timeLimitSeconds() * 1000L;
+        long dwell = arrivals.dwellMillis(i);
+        if (dwell > limit) {
+            clock.sleepUntil(parkedAt + limit);
+            engine.extend(result.spot());
+        }
+        clock.sleepUntil(parkedAt + dwell);
+
+        ReleaseResult release = engine.release(result.spot());
+        occupied.decrementAndGet();
+        if (!release.isReleased()) {
+            failedReleases.increment();
+            return;
+        }
+        if (release.overstayedSeconds() > 0) {
+            overstayed.increment();
+            overstaySeconds.add(release.overstayedSeconds());
+        }
+        if (release.closestExit() != -1) {
+            exitUse.incrementAndGet(release.closestExit());
+        }
+    }
+
+    // Turns the engine's timing wheel once per wheel tick of simulated time
+    private void tick() {
+        for (long at = BayTimers.TICK_MILLIS; !finished; at += BayTimers.TICK_MILLIS) {
+            clock.sleepUntil(at);
+            int count = engine.advanceTime((spots, n) -> expiryBatches++);
+            expiries += count;
+        }
+    }
+
+    private void report(double arrivalWallSeconds, double totalWallSeconds, long[][] curve, int samples) {
+        int n = arrivals.size();
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        long allocatedCount = n - rejected.sum();
+
+        System.out.printf("%nthroughput: %,.0f allocate calls per wall second (%,d calls in %.2f s, %.2f s until the lot emptied)%n",
+                n / arrivalWallSeconds, n, arrivalWallSeconds, totalWallSeconds);
+        System.out.printf("max dispatch lag: %,d simulated ms%n", maxDispatchLagMillis);
+        System.out.printf("allocation latency: p50 %s  p99 %s  p999 %s  max %s%n",
+                micros(percentile(sorted, 0.50)), micros(percentile(sorted, 0.99)),
+                micros(percentile(sorted, 0.999)), micros(n == 0 ? 0 : sorted[n - 1]));
+        System.out.printf("allocated %,d, rejected %,d (%.1f%%), failed releases %,d%n",
+                allocatedCount, rejected.sum(), n == 0 ? 0 : 100.0 * rejected.sum() / n, failedReleases.sum());
+        System.out.printf("time limits expired %,d in %,d batches; %,d vehicles overstayed, %,d s in total%n",
+                expiries, expiryBatches, overstayed.sum(), overstaySeconds.sum());
+        StringBuilder exits = new StringBuilder();
+        for (int exit : layout.exits) {
+            exits.append(' ').append(exit).append(": ").append(String.format("%,d", exitUse.get(exit)));
+        }
+        System.out.println("departures by exit:" + exits);
+
+        System.out.printf("%noccupancy (simulated time)%n%10s %10s %7s %12s %12s%n", "seconds", "occupied", "share", "arrived", "rejected");
+        for (int k = 0; k < samples; k++) {
+            System.out.printf("%10.1f %10d %6.1f%% %12d %12d%n", curve[0][k] / 1000.0, curve[1][k],
+                    100.0 * curve[1][k] / layout.bayCount(), curve[2][k], curve[3][k]);
+        }
+
+        if (Metrics.ENABLED) {
+            System.out.printf("%nengine metrics%n%s", Metrics.text());
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f us", nanos / 1000.0);
+    }
+}
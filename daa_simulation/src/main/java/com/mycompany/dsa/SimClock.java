@@ -0,0 +1,44 @@
+package com.mycompany.dsa;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scaled simulation time: one wall-clock second is `scale` simulated seconds.
+ *
+ * nowMillis() is the engine's clock, so term time limits and overstay run in simulated time.
+ * The clock stands at 0 until start(), which lets the engine be built before the run begins.
+ */
+final class SimClock {
+    private final double scale;
+    private volatile long startNanos;
+    private volatile boolean started;
+
+    SimClock(double scale) {
+        this.scale = scale;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        started = true;
+    }
+
+    double scale() {
+        return scale;
+    }
+
+    // Simulated milliseconds since the start of the run
+    long nowMillis() {
+        if (!started) {
+            return 0;
+        }
+        return (long) ((System.nanoTime() - startNanos) * scale / 1_000_000);
+    }
+
+    // Park the calling (virtual) thread until the simulated time reaches simMillis
+    void sleepUntil(long simMillis) {
+        long wakeNanos = startNanos + (long) (simMillis * 1_000_000 / scale);
+        for (long left = wakeNanos - System.nanoTime(); left > 0; left = wakeNanos - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+}